@@ -0,0 +1,78 @@
+package com.sdl.dxa.modelservice.service;
+
+import com.sdl.dxa.common.dto.DataModelType;
+import org.apache.commons.io.IOUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares detection of model type by leading top-level fields with the search of the whole content.
+ * <p>Payloads are sample models from test resources, {@code large} ones are R2 and DD4T pages with
+ * the model-specific fields at the end, after a few hundred kilobytes of nested items,
+ * which is the worst case for the streaming detection.</p>
+ * <p>Run with {@code mvn -P benchmark test-compile exec:exec}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelTypeDetectionBenchmark {
+
+    @Param({"models/r2.json", "models/r2_entity.json", "models/dd4t.json", "models/dd4t_header.json", "large-r2", "large-dd4t"})
+    private String payload;
+
+    private String content;
+
+    private byte[] bytes;
+
+    @Setup
+    public void setup() throws IOException {
+        content = payload.startsWith("large-") ? _largePage(payload.endsWith("r2")) :
+                IOUtils.toString(new ClassPathResource(payload).getInputStream(), "UTF-8");
+        bytes = content.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public DataModelType streamingDetection() {
+        return ContentService.getModelType(content);
+    }
+
+    @Benchmark
+    public DataModelType streamingDetectionOfBytes() {
+        return ContentService.getModelType(bytes);
+    }
+
+    @Benchmark
+    public DataModelType containsScan() {
+        return ContentService.scanModelType(content);
+    }
+
+    private static String _largePage(boolean r2) {
+        // items are under a field both models may have, so they have to be skipped to find the type
+        StringBuilder page = new StringBuilder("{\"Id\":\"1\",\"Title\":\"Large page\",\"Items\":[");
+        for (int i = 0; i < 2000; i++) {
+            if (i > 0) {
+                page.append(',');
+            }
+            page.append("{\"Id\":\"").append(i).append("\",\"Name\":\"Region ").append(i)
+                    .append("\",\"Content\":{\"Text\":\"Lorem ipsum dolor sit amet, consectetur adipiscing elit\"}}");
+        }
+        return page.append("],").append(r2 ? "\"UrlPath\":\"/large\"" : "\"Filename\":\"large\"").append('}').toString();
+    }
+}
@@ -1,12 +1,15 @@
 package com.sdl.dxa;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.sdl.dxa.caching.LocalizationIdProvider;
 import com.sdl.dxa.modelservice.ModelServiceLocalizationIdProvider;
+import com.sdl.dxa.modelservice.service.ClaimStoreAwareExecutorService;
 import com.tridion.ambientdata.web.AmbientDataServletFilter;
 import com.tridion.content.PageContentFactory;
 import com.tridion.taxonomies.TaxonomyFactory;
 import com.tridion.taxonomies.TaxonomyRelationManager;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
@@ -14,6 +17,12 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
 /**
  * KeyGeneratorConfiguration.
  */
@@ -48,6 +57,46 @@ public class ModelServiceConfiguration {
         return new PageContentFactory();
     }
 
+    /**
+     * Executor to load dynamic entities and keywords of a page concurrently. Bounded both in threads and queue,
+     * when it's full the requesting thread loads an entity itself. Tasks run with the claim store of the request.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService entityExpansionExecutor(@Value("${dxa.defaults.entity-expansion-threads:8}") int threads) {
+        int poolSize = Math.max(threads, 1);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(poolSize * 64),
+                new ThreadFactoryBuilder().setNameFormat("dxa-entity-expansion-%d").setDaemon(true).build(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return new ClaimStoreAwareExecutorService(executor);
+    }
+
+    /**
+     * Executor to load include pages concurrently. Include pages may have own include pages which are loaded
+     * from the pool threads, fork-join pool lets them wait for nested pages without exhausting the pool.
+     * Tasks run with the claim store of the request.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService includePageExecutor(@Value("${dxa.defaults.include-page-threads:4}") int threads) {
+        return new ClaimStoreAwareExecutorService(new ForkJoinPool(Math.max(threads, 1)));
+    }
+
+    /**
+     * Executor to resolve batches of links in background while a page is being expanded. Bounded both in threads and queue,
+     * when it's full the requesting thread resolves a batch itself. Batches are resolved with the claim store of the request.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService asyncLinkResolutionExecutor(@Value("${dxa.defaults.async-link-resolution-threads:4}") int threads) {
+        int poolSize = Math.max(threads, 1);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(poolSize * 64),
+                new ThreadFactoryBuilder().setNameFormat("dxa-async-link-resolution-%d").setDaemon(true).build(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return new ClaimStoreAwareExecutorService(executor);
+    }
+
     @Bean
     public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
         MappingJackson2HttpMessageConverter jsonConverter = new MappingJackson2HttpMessageConverter();
@@ -7,13 +7,17 @@ import com.sdl.dxa.common.dto.EntityRequestDto;
 import com.sdl.dxa.common.dto.EntityRequestDto.DcpType;
 import com.sdl.dxa.modelservice.service.ContentService;
 import com.sdl.dxa.modelservice.service.EntityModelService;
+import com.sdl.dxa.modelservice.service.caching.RenderedModelCache;
+import com.sdl.dxa.modelservice.spring.SmileHttpMessageConverter;
 import com.sdl.webapp.common.api.content.ContentProviderException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -29,6 +33,8 @@ public class EntityModelController {
 
     private final EntityModelService entityModelService;
 
+    private RenderedModelCache renderedModelCache;
+
     @Autowired
     public EntityModelController(EntityModelService entityModelService,
                                  ContentService contentService,
@@ -38,16 +44,23 @@ public class EntityModelController {
         this.localizationIdProvider = localizationIdProvider;
     }
 
+    @Autowired(required = false)
+    public void setRenderedModelCache(RenderedModelCache renderedModelCache) {
+        this.renderedModelCache = renderedModelCache;
+    }
+
     @GetMapping(path = {
             "/{componentId:\\d+}-{templateId:\\d+}",
-            "/{componentId:\\d+}"}, produces = MediaType.APPLICATION_JSON_VALUE)
+            "/{componentId:\\d+}"}, produces = {MediaType.APPLICATION_JSON_VALUE, SmileHttpMessageConverter.APPLICATION_SMILE_VALUE})
     public ResponseEntity getEntityModel(@PathVariable String uriType,
                                          @PathVariable int localizationId,
                                          @PathVariable int componentId,
                                          @PathVariable(required = false) Integer templateId,
                                          @RequestParam(value = "raw", required = false, defaultValue = "false") boolean isRawContent,
                                          @RequestParam(value = "modelType", required = false, defaultValue = "R2") DataModelType dataModelType,
-                                         @RequestParam(required = false, name = "dcpType") DcpType dcpType) throws ContentProviderException {
+                                         @RequestParam(required = false, name = "dcpType") DcpType dcpType,
+                                         @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                         @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) throws ContentProviderException {
         localizationIdProvider.setCurrentId(localizationId);
 
         log.debug("trying to load an entity with URI type = '{}' and localization id = '{}', and componentId = '{}', " +
@@ -59,9 +72,23 @@ public class EntityModelController {
                 .contentType(isRawContent ? ContentType.RAW : ContentType.MODEL)
                 .build();
 
-        return ResponseEntity.ok(isRawContent ?
-                contentService.loadComponentPresentation(entityRequest) :
-                entityModelService.loadEntity(entityRequest));
+        if (!isRawContent && renderedModelCache != null) {
+            // already serialized model is written to response as is
+            boolean smile = SmileHttpMessageConverter.isPreferred(accept);
+            RenderedModelCache.RenderedModel rendered = smile ?
+                    renderedModelCache.getOrRenderSmile(() -> entityModelService.loadEntity(entityRequest), "EntityModel", entityRequest) :
+                    renderedModelCache.getOrRender(() -> entityModelService.loadEntity(entityRequest), "EntityModel", entityRequest);
+            if (rendered == null) {
+                return ResponseEntity.ok().build();
+            }
+            return rendered.toResponse(smile ? SmileHttpMessageConverter.APPLICATION_SMILE : MediaType.APPLICATION_JSON, acceptEncoding);
+        }
+
+        if (isRawContent) {
+            // raw content is JSON whatever format is accepted
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(contentService.loadComponentPresentation(entityRequest));
+        }
+        return ResponseEntity.ok(entityModelService.loadEntity(entityRequest));
     }
 
 }
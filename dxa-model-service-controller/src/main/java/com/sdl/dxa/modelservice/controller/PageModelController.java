@@ -7,12 +7,23 @@ import com.sdl.dxa.common.dto.PageRequestDto;
 import com.sdl.dxa.common.dto.PageRequestDto.PageInclusion;
 import com.sdl.dxa.modelservice.ModelServiceLocalizationIdProvider;
 import com.sdl.dxa.modelservice.controller.Utils.ClaimCookieUtils;
+import com.sdl.dxa.modelservice.service.ConfigService;
 import com.sdl.dxa.modelservice.service.ContentService;
 import com.sdl.dxa.modelservice.service.LegacyPageModelService;
+import com.sdl.dxa.modelservice.service.ModelContent;
 import com.sdl.dxa.modelservice.service.PageModelService;
+import com.sdl.dxa.modelservice.service.PageProjection;
+import com.sdl.dxa.modelservice.service.ProjectedPageModelService;
+import com.sdl.dxa.modelservice.service.caching.RenderedModelCache;
+import com.sdl.dxa.modelservice.service.processing.expansion.ExpansionDeadline;
+import com.sdl.dxa.modelservice.spring.SmileHttpMessageConverter;
 import com.sdl.webapp.common.api.content.ContentProviderException;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -22,6 +33,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import javax.servlet.http.HttpServletRequest;
+import java.util.Arrays;
 import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -51,6 +63,16 @@ public class PageModelController {
      */
     private static final Pattern PAGE_URL_REGEX = Pattern.compile("(/[^\\d]+)+?/\\d+/?(?<pageUrl>/.*)", Pattern.CASE_INSENSITIVE);
 
+    /**
+     * Request header with time budget of the page expansion in milliseconds, may only lower {@code dxa.defaults.page-expansion-timeout}.
+     */
+    public static final String EXPANSION_TIMEOUT_HEADER = "X-DXA-Expansion-Timeout";
+
+    /**
+     * Response header set to {@code true} if the time budget ran out and the page model is not completely expanded.
+     */
+    public static final String PARTIAL_MODEL_HEADER = "X-DXA-Partial-Model";
+
     private final PageModelService pageModelService;
 
     private final LegacyPageModelService legacyPageModelService;
@@ -59,6 +81,12 @@ public class PageModelController {
 
     private ModelServiceLocalizationIdProvider localizationIdProvider;
 
+    private RenderedModelCache renderedModelCache;
+
+    private ConfigService configService;
+
+    private CacheManager cacheManager;
+
     @Autowired
     public PageModelController(PageModelService pageModelService,
                                LegacyPageModelService legacyPageModelService,
@@ -70,14 +98,31 @@ public class PageModelController {
         this.localizationIdProvider = localizationIdProvider;
     }
 
+    @Autowired(required = false)
+    public void setRenderedModelCache(RenderedModelCache renderedModelCache) {
+        this.renderedModelCache = renderedModelCache;
+    }
+
+    @Autowired(required = false)
+    public void setConfigService(ConfigService configService) {
+        this.configService = configService;
+    }
+
+    @Autowired(required = false)
+    public void setCacheManager(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
     @RequestMapping(value = {"/{localizationId}-{pageId}", "/{localizationId}/**"},
-            produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+            produces = {MediaType.APPLICATION_JSON_UTF8_VALUE, SmileHttpMessageConverter.APPLICATION_SMILE_VALUE})
     public ResponseEntity getPage(@PathVariable String uriType,
                                   @PathVariable int localizationId,
                                   @PathVariable(required = false) Optional<Integer> pageId,
                                   @RequestParam(value = "includes", required = false, defaultValue = "INCLUDE") PageInclusion pageInclusion,
                                   @RequestParam(value = "modelType", required = false, defaultValue = "R2") DataModelType dataModelType,
                                   @RequestParam(value = "raw", required = false, defaultValue = "false") boolean isRawContent,
+                                  @RequestParam(value = "regions", required = false) String regions,
+                                  @RequestParam(value = "fields", required = false) String fields,
                                   HttpServletRequest request) throws ContentProviderException, JsonProcessingException {
 
         ClaimCookieUtils.setupClaimStore(request);
@@ -91,19 +136,127 @@ public class PageModelController {
         localizationIdProvider.setCurrentId(pageRequestDto.getPublicationId());
 
         log.trace("requesting pageSource with {}", pageRequestDto);
-        Object result;
         if (pageRequestDto.getContentType() == ContentType.RAW) {
-            result = contentService.loadPageContent(pageRequestDto);
+            // raw content is written as is from UTF-8 bytes, it's JSON whatever format is accepted
+            ModelContent content = contentService.loadPageModelContent(pageRequestDto);
+            return ResponseEntity.status(HttpStatus.OK).contentType(MediaType.APPLICATION_JSON_UTF8).body(content != null ? content.getContent() : null);
+        }
 
-            // We must always return the raw String.
-            return new ResponseEntity<>((String) result, HttpStatus.OK);
+        PageProjection projection = _getProjection(pageRequestDto, regions, fields);
+        long timeout = _getExpansionTimeout(request);
+        ExpansionDeadline deadline = timeout > 0 ? ExpansionDeadline.start(timeout) : null;
+        try {
+            ResponseEntity response = _getPageModel(pageRequestDto, projection, request);
+            if (deadline == null || !deadline.isPartial()) {
+                return response;
+            }
+
+            log.warn("Page model for {} is partial, expansion took longer than {} ms", pageRequestDto, timeout);
+            return ResponseEntity.status(response.getStatusCode())
+                    .headers(response.getHeaders())
+                    .header(PARTIAL_MODEL_HEADER, "true")
+                    .body(response.getBody());
+        } finally {
+            ExpansionDeadline.clear();
+        }
+    }
+
+    private ResponseEntity _getPageModel(PageRequestDto pageRequestDto, PageProjection projection,
+                                         HttpServletRequest request) throws ContentProviderException {
+        if (renderedModelCache != null) {
+
+            // already serialized model is written to response as is
+            boolean smile = SmileHttpMessageConverter.isPreferred(request.getHeader(HttpHeaders.ACCEPT));
+            Object[] key = _getRenderedModelKey(pageRequestDto, projection);
+            RenderedModelCache.RenderedModel rendered = smile ?
+                    renderedModelCache.getOrRenderSmile(() -> _loadPageModel(pageRequestDto, projection), key) :
+                    renderedModelCache.getOrRender(() -> _loadPageModel(pageRequestDto, projection), key);
+            if (rendered == null) {
+                return ResponseEntity.ok().build();
+            }
+            return rendered.toResponse(smile ? SmileHttpMessageConverter.APPLICATION_SMILE : MediaType.APPLICATION_JSON_UTF8,
+                    request.getHeader(HttpHeaders.ACCEPT_ENCODING));
         } else {
 
-            result = pageRequestDto.getDataModelType() == DataModelType.R2 ?
-                    pageModelService.loadPageModel(pageRequestDto) :
-                    legacyPageModelService.loadLegacyPageModel(pageRequestDto);
-            return ResponseEntity.ok(result);
+            return ResponseEntity.ok(_loadPageModel(pageRequestDto, projection));
+        }
+    }
+
+    /**
+     * Returns the projection of the page requested by the client. Projections are only applied to R2 models
+     * if the service supports them, otherwise the whole page is loaded.
+     */
+    private PageProjection _getProjection(PageRequestDto pageRequestDto, String regions, String fields) {
+        PageProjection projection = PageProjection.of(regions, fields);
+        if (projection.isAll() || (pageRequestDto.getDataModelType() == DataModelType.R2 &&
+                pageModelService instanceof ProjectedPageModelService)) {
+            return projection;
+        }
+        log.debug("Projection {} is not supported for {}, loading the whole page", projection, pageRequestDto);
+        return PageProjection.ALL;
+    }
+
+    private static Object[] _getRenderedModelKey(PageRequestDto pageRequestDto, PageProjection projection) {
+        return projection.isAll() ?
+                new Object[]{"PageModel", pageRequestDto} :
+                new Object[]{"PageModel", pageRequestDto, projection};
+    }
+
+    /**
+     * Returns the time budget of the request. The header may only lower the configured budget, so clients cannot
+     * switch off the budget of the server.
+     */
+    private long _getExpansionTimeout(HttpServletRequest request) {
+        long configuredTimeout = configService == null ? 0 : configService.getDefaults().getPageExpansionTimeout();
+        long requestedTimeout = NumberUtils.toLong(request.getHeader(EXPANSION_TIMEOUT_HEADER), 0);
+        if (requestedTimeout <= 0) {
+            return configuredTimeout;
+        }
+        return configuredTimeout > 0 ? Math.min(configuredTimeout, requestedTimeout) : requestedTimeout;
+    }
+
+    /**
+     * Loads the page model. Requests with a time budget bypass synchronized caching of the services, because
+     * requests waiting for the same model would get it partial as if it was complete. Such requests still read
+     * the cache of the services, but a model is only put in it if it's complete.
+     */
+    private Object _loadPageModel(PageRequestDto pageRequestDto, PageProjection projection) throws ContentProviderException {
+        ExpansionDeadline deadline = ExpansionDeadline.current();
+        Cache pageModels = deadline == null || cacheManager == null ? null : cacheManager.getCache("pageModels");
+        if (pageModels == null) {
+            return _loadPageModelFromService(pageRequestDto, projection);
+        }
+
+        Object key = _getPageModelKey(pageRequestDto, projection);
+        Cache.ValueWrapper cached = pageModels.get(key);
+        if (cached != null) {
+            return cached.get();
+        }
+        Object model = _loadPageModelFromService(pageRequestDto, projection);
+        if (model != null && !deadline.isPartial()) {
+            pageModels.put(key, model);
+        }
+        return model;
+    }
+
+    private Object _loadPageModelFromService(PageRequestDto pageRequestDto, PageProjection projection) throws ContentProviderException {
+        if (!projection.isAll()) {
+            return ((ProjectedPageModelService) pageModelService).loadPageModel(pageRequestDto, projection);
+        }
+        return pageRequestDto.getDataModelType() == DataModelType.R2 ?
+                pageModelService.loadPageModel(pageRequestDto) :
+                legacyPageModelService.loadLegacyPageModel(pageRequestDto);
+    }
+
+    /**
+     * Returns the key the model is cached under by the service methods.
+     */
+    private static Object _getPageModelKey(PageRequestDto pageRequestDto, PageProjection projection) {
+        if (!projection.isAll()) {
+            return Arrays.asList("loadPageModel", pageRequestDto, projection);
         }
+        return Arrays.asList(pageRequestDto.getDataModelType() == DataModelType.R2 ? "loadPageModel" : "loadLegacyPageModel",
+                pageRequestDto);
     }
 
     private PageRequestDto buildPageRequest(String uriType, int localizationId, Optional<Integer> pageId,
@@ -3,6 +3,7 @@ package com.sdl.dxa.modelservice.controller.api;
 import com.sdl.dxa.api.datamodel.model.SitemapItemModelData;
 import com.sdl.dxa.api.datamodel.model.TaxonomyNodeModelData;
 import com.sdl.dxa.modelservice.ModelServiceLocalizationIdProvider;
+import com.sdl.dxa.modelservice.spring.SmileHttpMessageConverter;
 import com.sdl.dxa.common.dto.DepthCounter;
 import com.sdl.dxa.common.dto.SitemapRequestDto;
 import com.sdl.dxa.tridion.navigation.dynamic.NavigationModelProvider;
@@ -39,7 +40,7 @@ public class DynamicNavigationController {
         this.localizationIdProvider = localizationIdProvider;
     }
 
-    @RequestMapping(produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    @RequestMapping(produces = {MediaType.APPLICATION_JSON_UTF8_VALUE, SmileHttpMessageConverter.APPLICATION_SMILE_VALUE})
     public ResponseEntity<TaxonomyNodeModelData> navigationModel(@PathVariable(value = "localizationId", required = false) Integer localizationId) {
         SitemapRequestDto requestDto = SitemapRequestDto.wholeTree(localizationId).build();
 
@@ -48,7 +49,7 @@ public class DynamicNavigationController {
                 .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
-    @GetMapping(value = "/subtree", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    @GetMapping(value = "/subtree", produces = {MediaType.APPLICATION_JSON_UTF8_VALUE, SmileHttpMessageConverter.APPLICATION_SMILE_VALUE})
     public ResponseEntity<Collection<SitemapItemModelData>> subtree(
             @PathVariable(value = "localizationId", required = false) Integer localizationId,
             @RequestParam(value = "includeAncestors", required = false, defaultValue = "false") Boolean includeAncestors,
@@ -56,7 +57,7 @@ public class DynamicNavigationController {
         return subtree(localizationId, null, includeAncestors, descendantLevels);
     }
 
-    @GetMapping(value = "/subtree/{sitemapItemId}", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    @GetMapping(value = "/subtree/{sitemapItemId}", produces = {MediaType.APPLICATION_JSON_UTF8_VALUE, SmileHttpMessageConverter.APPLICATION_SMILE_VALUE})
     public ResponseEntity<Collection<SitemapItemModelData>> subtree(
             @PathVariable(value = "localizationId", required = false) Integer localizationId,
             @PathVariable(value = "sitemapItemId", required = false) String sitemapItemId,
@@ -0,0 +1,127 @@
+package com.sdl.dxa.modelservice.service;
+
+import com.google.common.util.concurrent.ForwardingExecutorService;
+import com.tridion.ambientdata.AmbientDataContext;
+import com.tridion.ambientdata.claimstore.ClaimStore;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Executor running tasks with the claim store of the thread which submitted them. Claim store is bound to the request
+ * thread (see {@code ClaimCookieUtils.setupClaimStore}), so without it Broker and CIL calls made on pool threads
+ * would lose preview and ADF claims of the request.
+ */
+public class ClaimStoreAwareExecutorService extends ForwardingExecutorService {
+
+    private final ExecutorService delegate;
+
+    public ClaimStoreAwareExecutorService(ExecutorService delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Wraps the task to run with the claim store of the current thread.
+     *
+     * @param task task to wrap
+     * @return task restoring the claim store, or the task itself if there is no claim store
+     */
+    public static <T> Callable<T> withClaimStore(Callable<T> task) {
+        ClaimStore claimStore = AmbientDataContext.getCurrentClaimStore();
+        if (claimStore == null) {
+            return task;
+        }
+        return () -> {
+            ClaimStore previous = AmbientDataContext.getCurrentClaimStore();
+            AmbientDataContext.setCurrentClaimStore(claimStore);
+            try {
+                return task.call();
+            } finally {
+                AmbientDataContext.setCurrentClaimStore(previous);
+            }
+        };
+    }
+
+    /**
+     * Wraps the task to run with the claim store of the current thread.
+     *
+     * @param task task to wrap
+     * @return task restoring the claim store, or the task itself if there is no claim store
+     */
+    public static Runnable withClaimStore(Runnable task) {
+        ClaimStore claimStore = AmbientDataContext.getCurrentClaimStore();
+        if (claimStore == null) {
+            return task;
+        }
+        return () -> {
+            ClaimStore previous = AmbientDataContext.getCurrentClaimStore();
+            AmbientDataContext.setCurrentClaimStore(claimStore);
+            try {
+                task.run();
+            } finally {
+                AmbientDataContext.setCurrentClaimStore(previous);
+            }
+        };
+    }
+
+    @Override
+    protected ExecutorService delegate() {
+        return delegate;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        delegate.execute(withClaimStore(command));
+    }
+
+    @Override
+    public <T> Future<T> submit(Callable<T> task) {
+        return delegate.submit(withClaimStore(task));
+    }
+
+    @Override
+    public Future<?> submit(Runnable task) {
+        return delegate.submit(withClaimStore(task));
+    }
+
+    @Override
+    public <T> Future<T> submit(Runnable task, T result) {
+        return delegate.submit(withClaimStore(task), result);
+    }
+
+    @Override
+    public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks) throws InterruptedException {
+        return delegate.invokeAll(_wrapAll(tasks));
+    }
+
+    @Override
+    public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.invokeAll(_wrapAll(tasks), timeout, unit);
+    }
+
+    @Override
+    public <T> T invokeAny(Collection<? extends Callable<T>> tasks) throws InterruptedException, ExecutionException {
+        return delegate.invokeAny(_wrapAll(tasks));
+    }
+
+    @Override
+    public <T> T invokeAny(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        return delegate.invokeAny(_wrapAll(tasks), timeout, unit);
+    }
+
+    private static <T> List<Callable<T>> _wrapAll(Collection<? extends Callable<T>> tasks) {
+        List<Callable<T>> wrapped = new ArrayList<>(tasks.size());
+        for (Callable<T> task : tasks) {
+            wrapped.add(withClaimStore(task));
+        }
+        return wrapped;
+    }
+}
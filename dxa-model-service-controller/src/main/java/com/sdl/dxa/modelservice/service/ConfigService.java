@@ -69,6 +69,18 @@ public class ConfigService {
 
         private boolean richTextResolve;
 
+        private int pageEntityCacheSize = 500;
+
+        private int entityExpansionThreads = 8;
+
+        private int includePageThreads = 4;
+
+        private int asyncLinkResolutionThreads = 4;
+
+        private int asyncLinkResolutionBatchSize = 100;
+
+        private long pageExpansionTimeout = 0;
+
         @Autowired
         public Defaults(StaticContentResolver staticContentResolver, ObjectMapper objectMapper) {
             this.staticContentResolver = staticContentResolver;
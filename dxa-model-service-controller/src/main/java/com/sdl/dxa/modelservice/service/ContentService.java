@@ -1,9 +1,15 @@
 package com.sdl.dxa.modelservice.service;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.google.common.collect.ImmutableSet;
 import com.sdl.dxa.common.dto.DataModelType;
 import com.sdl.dxa.common.dto.EntityRequestDto;
 import com.sdl.dxa.common.dto.PageRequestDto;
 import com.sdl.dxa.common.util.PathUtils;
+import com.sdl.dxa.modelservice.service.caching.FailuresCache;
+import com.sdl.dxa.modelservice.service.caching.PageUrlIndex;
 import com.sdl.dxa.tridion.compatibility.TridionQueryLoader;
 import com.sdl.webapp.common.api.content.ContentProviderException;
 import com.sdl.webapp.common.api.content.PageNotFoundException;
@@ -21,11 +27,17 @@ import com.tridion.dcp.ComponentPresentationFactory;
 import com.tridion.dynamiccontent.ComponentPresentationAssembler;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.util.FileCopyUtils;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
 
 import static com.sdl.dxa.common.util.PathUtils.normalizePathToDefaults;
 
@@ -39,9 +51,41 @@ import static com.sdl.dxa.common.util.PathUtils.normalizePathToDefaults;
 @Service
 public class ContentService {
 
+    private static final int PAGE_CONTENT_BUFFER_SIZE = 64 * 1024;
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /**
+     * Top-level fields of R2 pages and entities which DD4T pages and component presentations don't have.
+     */
+    private static final Set<String> R2_FIELDS = ImmutableSet.of("UrlPath", "StructureGroupId", "Namespace", "Meta",
+            "Regions", "MvcData", "XpmMetadata", "ExtensionData", "HtmlClasses", "SchemaId", "Content", "LinkUrl",
+            "BinaryContent", "ExternalContent");
+
+    /**
+     * Top-level fields of DD4T pages and component presentations which R2 pages and entities don't have.
+     */
+    private static final Set<String> DD4T_FIELDS = ImmutableSet.of("Filename", "ComponentPresentations", "MetadataFields",
+            "StructureGroup", "Publication", "OwningPublication", "Version", "Categories", "RevisionDate",
+            "LastPublishedDate", "Component", "RenderedContent", "IsDynamic", "OrderOnPage", "Conditions");
+
+    @FunctionalInterface
+    private interface ParserSupplier {
+
+        JsonParser get() throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface PageLoader<T> {
+
+        T load(int publicationId, int pageId) throws ContentProviderException;
+    }
+
     private final ConfigService configService;
     private final TridionQueryLoader queryLoader;
     private final PageContentFactory pageContentFactory;
+    private FailuresCache failuresCache;
+    private PageUrlIndex pageUrlIndex;
 
     @Autowired
     public ContentService(ConfigService configService,
@@ -51,13 +95,67 @@ public class ContentService {
         this.pageContentFactory = pageContentFactory;
     }
 
+    @Autowired(required = false)
+    public void setPageUrlIndex(PageUrlIndex pageUrlIndex) {
+        this.pageUrlIndex = pageUrlIndex != null && pageUrlIndex.isEnabled() ? pageUrlIndex : null;
+    }
+
+    @Autowired(required = false)
+    public void setFailuresCache(FailuresCache failuresCache) {
+        this.failuresCache = failuresCache;
+    }
+
     /**
      * Detects model type from json content string.
+     * <p>Only top-level fields are read with a streaming parser until one is found which only one of the models has,
+     * nested objects are skipped. If no such field is found, the whole content is searched for fields specific
+     * to the models. Page content keeps its detected type in {@link ModelContent}, see {@link #loadPageModelContent(PageRequestDto)}.</p>
      *
      * @param jsonContent json content of a page
      * @return type of the model
      */
     public static DataModelType getModelType(String jsonContent) {
+        DataModelType modelType = _detectModelType(() -> JSON_FACTORY.createParser(jsonContent));
+        return modelType != null ? modelType : scanModelType(jsonContent);
+    }
+
+    /**
+     * Detects model type from json content in UTF-8, the same way as {@link #getModelType(String)}.
+     *
+     * @param jsonContent json content of a page in UTF-8
+     * @return type of the model
+     */
+    public static DataModelType getModelType(byte[] jsonContent) {
+        DataModelType modelType = _detectModelType(() -> JSON_FACTORY.createParser(jsonContent));
+        return modelType != null ? modelType : scanModelType(new String(jsonContent, StandardCharsets.UTF_8));
+    }
+
+    @Nullable
+    private static DataModelType _detectModelType(ParserSupplier parserSupplier) {
+        try (JsonParser parser = parserSupplier.get()) {
+            if (parser.nextToken() == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    if (R2_FIELDS.contains(field)) {
+                        return DataModelType.R2;
+                    }
+                    if (DD4T_FIELDS.contains(field)) {
+                        return DataModelType.DD4T;
+                    }
+                    parser.nextToken();
+                    parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            log.debug("Couldn't read top-level fields of content, detecting model type by the whole content", e);
+        }
+        return null;
+    }
+
+    /**
+     * Detects model type by searching the whole content for fields specific to the models.
+     */
+    static DataModelType scanModelType(String jsonContent) {
         boolean isR2Page = jsonContent.contains("UrlPath") && !jsonContent.contains("ComponentPresentations");
         boolean isR2Entity = jsonContent.contains("Content") && jsonContent.contains("SchemaId") && !jsonContent.contains("ComponentType");
 
@@ -67,12 +165,30 @@ public class ContentService {
     @NotNull
     @Cacheable(value = "pageModels", key = "{ #root.methodName, #pageRequest }", sync = true)
     public String loadPageContent(PageRequestDto pageRequest) throws ContentProviderException {
+        return _loadPage(pageRequest, this::loadPageContent);
+    }
+
+    /**
+     * Loads raw page content as JSON in UTF-8 with the type of its model. Content is copied from Broker in chunks
+     * without building the whole content as a string, and is cached as bytes which take about half of the memory
+     * of a string. The model type is detected once and cached with the content.
+     *
+     * @param pageRequest current page request
+     * @return page content in UTF-8 with its model type
+     * @throws ContentProviderException if the page cannot be loaded
+     */
+    @Cacheable(value = "pageModels", key = "{ #root.methodName, #pageRequest }", sync = true)
+    public ModelContent loadPageModelContent(PageRequestDto pageRequest) throws ContentProviderException {
+        return _loadPage(pageRequest, (publicationId, pageId) -> ModelContent.of(loadPageContentBytes(publicationId, pageId)));
+    }
+
+    private <T> T _loadPage(PageRequestDto pageRequest, PageLoader<T> loader) throws ContentProviderException {
         log.info("Page: {}, request: {} - CACHE NOT USED", pageRequest.getPublicationId(), pageRequest.getPath());
         int publicationId = pageRequest.getPublicationId();
         if (pageRequest.getPageId() != 0) {
             log.info("Page ID is known, no need to search it, requesting pubId = {}, pageId = {}", publicationId, pageRequest.getPageId());
             try {
-                return loadPageContent(publicationId, pageRequest.getPageId());
+                return loader.load(publicationId, pageRequest.getPageId());
             } catch (DxaItemNotFoundException ex) {
                 log.error(ex.getMessage());
                 return null;
@@ -80,6 +196,22 @@ public class ContentService {
         }
 
         String path = pageRequest.getPath();
+        // path without extension may find another page than the same path with extension
+        String url = PageUrlIndex.getIndexUrl(path);
+        Integer indexedPageId = pageUrlIndex != null ? pageUrlIndex.getPageId(publicationId, url) : null;
+        if (indexedPageId != null) {
+            log.debug("Page ID {} for path '{}' is known from index, requesting pubId = {}", indexedPageId, path, publicationId);
+            try {
+                return loader.load(publicationId, indexedPageId);
+            } catch (DxaItemNotFoundException ex) {
+                log.debug("Page ID {} from index cannot be loaded, searching page by path '{}' again", indexedPageId, path);
+                pageUrlIndex.forget(publicationId, url);
+            }
+        }
+
+        if (_isFailed(FailuresCache.Type.PAGE, publicationId, url)) {
+            throw new PageNotFoundException(publicationId, path);
+        }
 
         log.debug("Trying to request a page with localization id = '{}' and path = '{}'", publicationId, path);
         // cannot call OrCriteria#addCriteria(Criteria) due to SOException, https://jira.sdl.com/browse/CRQ-3850
@@ -97,10 +229,15 @@ public class ContentService {
             log.debug("Requested publication '{}', path '{}', result is '{}'", publicationId, path, result);
             if (result.length == 0) {
                 log.debug("Page not found for {}", pageRequest);
+                _recordFailure(FailuresCache.Type.PAGE, publicationId, url);
                 throw new PageNotFoundException(publicationId, path);
             }
 
-            return loadPageContent(publicationId, TcmUtils.getItemId(result[0]));
+            int pageId = TcmUtils.getItemId(result[0]);
+            if (pageUrlIndex != null) {
+                pageUrlIndex.put(publicationId, url, pageId);
+            }
+            return loader.load(publicationId, pageId);
         } catch (StorageException e) {
             ContentProviderException exception = new ContentProviderException("Couldn't communicate to CD broker DB while loading a page " +
                     "with localization ID '" + publicationId + "' and page URL '" + path + "'", e);
@@ -120,7 +257,11 @@ public class ContentService {
     @NotNull
     @Cacheable(value = "entityModels", key = "{ #root.methodName, #publicationId, #componentId, #templateId}", sync = true)
     public String loadRenderedComponentPresentation(int publicationId, int componentId, int templateId) throws DxaItemNotFoundException {
+        if (_isFailed(FailuresCache.Type.ENTITY, "rendered", publicationId, componentId, templateId)) {
+            throw new DxaItemNotFoundException("Cannot find a CP for componentId = " + componentId + ", template id = " + templateId);
+        }
         ComponentPresentationAssembler assembler = getAssembler(publicationId);
+        int requestedTemplateId = templateId;
 
         if (templateId <= 0) {
             templateId = configService.getDefaults().getDynamicTemplateId(publicationId);
@@ -128,6 +269,7 @@ public class ContentService {
 
         String content = assembler.getContent(componentId, templateId);
         if(content == null) {
+            _recordFailure(FailuresCache.Type.ENTITY, "rendered", publicationId, componentId, requestedTemplateId);
             throw new DxaItemNotFoundException("Cannot find a CP for componentId = " + componentId + ", template id = " + templateId);
         }
         return content;
@@ -146,6 +288,10 @@ public class ContentService {
         int publicationId = entityRequest.getPublicationId();
         int componentId = entityRequest.getComponentId();
         int templateId = entityRequest.getTemplateId();
+        Object[] failureKey = {publicationId, componentId, templateId, entityRequest.getDcpType()};
+        if (_isFailed(FailuresCache.Type.ENTITY, failureKey)) {
+            throw new DxaItemNotFoundException("Cannot find a CP for componentId = " + componentId + ", template id = " + templateId);
+        }
 
         ComponentPresentationFactory componentPresentationFactory = getComponentPresentationFactory(publicationId);
 
@@ -164,6 +310,7 @@ public class ContentService {
         }
 
         if (componentPresentation == null) {
+            _recordFailure(FailuresCache.Type.ENTITY, failureKey);
             throw new DxaItemNotFoundException("Cannot find a CP for componentId = " + componentId + ", template id = " + templateId);
         }
         return componentPresentation;
@@ -172,12 +319,7 @@ public class ContentService {
 
     String loadPageContent(int publicationId, int pageId) throws ContentProviderException {
         try {
-            log.trace("requesting page content for publication {} page id and {}", publicationId, pageId);
-            CharacterData data = pageContentFactory.getPageContent(publicationId, pageId);
-            if (data == null) {
-                throw new DxaItemNotFoundException("Content Service returned null for request pubId = " + publicationId + "pageId = " + pageId);
-            }
-            return data.getString();
+            return _getPageContent(publicationId, pageId).getString();
         } catch (IOException e) {
             ContentProviderException exception = new ContentProviderException("Couldn't load a page with localization ID '" + publicationId + "' and page ID '" + pageId + "'", e);
             log.warn("Failed to load page content", exception);
@@ -185,6 +327,43 @@ public class ContentService {
         }
     }
 
+    byte[] loadPageContentBytes(int publicationId, int pageId) throws ContentProviderException {
+        try {
+            CharacterData data = _getPageContent(publicationId, pageId);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(PAGE_CONTENT_BUFFER_SIZE);
+            FileCopyUtils.copy(data.getReader(), new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            return out.toByteArray();
+        } catch (IOException e) {
+            ContentProviderException exception = new ContentProviderException("Couldn't load a page with localization ID '" + publicationId + "' and page ID '" + pageId + "'", e);
+            log.warn("Failed to load page content", exception);
+            throw exception;
+        }
+    }
+
+    @NotNull
+    private CharacterData _getPageContent(int publicationId, int pageId) throws IOException, DxaItemNotFoundException {
+        log.trace("requesting page content for publication {} page id and {}", publicationId, pageId);
+        if (_isFailed(FailuresCache.Type.PAGE, publicationId, pageId)) {
+            throw new DxaItemNotFoundException("Page is known to be missing for request pubId = " + publicationId + " pageId = " + pageId);
+        }
+        CharacterData data = pageContentFactory.getPageContent(publicationId, pageId);
+        if (data == null) {
+            _recordFailure(FailuresCache.Type.PAGE, publicationId, pageId);
+            throw new DxaItemNotFoundException("Content Service returned null for request pubId = " + publicationId + "pageId = " + pageId);
+        }
+        return data;
+    }
+
+    private boolean _isFailed(FailuresCache.Type type, Object... key) {
+        return failuresCache != null && failuresCache.isFailed(type, key);
+    }
+
+    private void _recordFailure(FailuresCache.Type type, Object... key) {
+        if (failuresCache != null) {
+            failuresCache.recordFailure(type, key);
+        }
+    }
+
     ComponentPresentationAssembler getAssembler(int publicationId) {
         return new ComponentPresentationAssembler(publicationId);
     }
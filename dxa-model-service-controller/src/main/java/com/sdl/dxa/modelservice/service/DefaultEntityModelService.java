@@ -1,10 +1,13 @@
 package com.sdl.dxa.modelservice.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 import com.sdl.dxa.api.datamodel.model.EntityModelData;
-import com.sdl.dxa.api.datamodel.model.ViewModelData;
 import com.sdl.dxa.common.dto.DataModelType;
 import com.sdl.dxa.common.dto.EntityRequestDto;
+import com.sdl.dxa.modelservice.service.caching.FailuresCache;
+import com.sdl.dxa.modelservice.service.caching.KeywordCache;
 import com.sdl.dxa.modelservice.service.processing.conversion.ToDd4tConverter;
 import com.sdl.dxa.modelservice.service.processing.conversion.ToR2Converter;
 import com.sdl.dxa.modelservice.service.processing.expansion.EntityModelExpander;
@@ -23,10 +26,13 @@ import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.util.Arrays;
 
 import static com.sdl.dxa.modelservice.service.ContentService.getModelType;
 
@@ -36,6 +42,8 @@ public class DefaultEntityModelService implements EntityModelServiceSuppressLink
 
     private final ObjectMapper objectMapper;
 
+    private final ObjectReader entityModelReader;
+
     private final ContentService contentService;
 
     private final RichTextLinkResolverImpl richTextLinkResolver;
@@ -52,6 +60,11 @@ public class DefaultEntityModelService implements EntityModelServiceSuppressLink
 
     private ToR2Converter toR2Converter;
 
+    private FailuresCache failuresCache;
+
+    private KeywordCache keywordCache;
+
+    private CacheManager cacheManager;
 
     @Autowired
     public DefaultEntityModelService(@Qualifier("dxaR2ObjectMapper") ObjectMapper objectMapper,
@@ -61,6 +74,7 @@ public class DefaultEntityModelService implements EntityModelServiceSuppressLink
                                      RichTextLinkResolverImpl richTextLinkResolver,
                                      ConfigService configService, BatchLinkResolverFactory batchLinkResolverFactory) {
         this.objectMapper = objectMapper;
+        this.entityModelReader = objectMapper.readerFor(EntityModelData.class);
         this.contentService = contentService;
         this.richTextLinkResolver = richTextLinkResolver;
         this.configService = configService;
@@ -74,13 +88,58 @@ public class DefaultEntityModelService implements EntityModelServiceSuppressLink
         this.toDd4tConverter = toDd4tConverter;
     }
 
+    @Autowired(required = false)
+    public void setFailuresCache(FailuresCache failuresCache) {
+        this.failuresCache = failuresCache;
+    }
+
+    @Autowired(required = false)
+    public void setKeywordCache(KeywordCache keywordCache) {
+        this.keywordCache = keywordCache;
+    }
+
+    @Autowired(required = false)
+    public void setCacheManager(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
     @Autowired
     public void setToR2Converter(ToR2Converter toR2Converter) {
         this.toR2Converter = toR2Converter;
     }
 
+    /**
+     * Loads an entity model, optionally without resolving its links. Entities without resolved links are what pages
+     * embed, so they are kept in {@code entityModels} cache independently of the page which requested them.
+     * The cache keeps its own copy of an entity, and a copy is returned on every call because the page resolves
+     * links in it. Concurrent requests of the same entity load it once.
+     */
     @NotNull
     public EntityModelData loadEntity(EntityRequestDto entityRequest, boolean resolveLinks) throws ContentProviderException {
+        Cache cache = resolveLinks || cacheManager == null ? null : cacheManager.getCache("entityModels");
+        if (cache == null) {
+            return _loadEntity(entityRequest, resolveLinks);
+        }
+
+        // links are not resolved, so the entity doesn't depend on the page requesting it
+        Object key = Arrays.asList("loadEntityWithoutLinks", entityRequest.getUriType(), entityRequest.getPublicationId(),
+                entityRequest.getComponentId(), entityRequest.getTemplateId(), entityRequest.getDcpType(), entityRequest.getDataModelType());
+        try {
+            return _copyEntityModel(cache.get(key, () -> _loadEntity(entityRequest, false)));
+        } catch (Cache.ValueRetrievalException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ContentProviderException) {
+                throw (ContentProviderException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new ContentProviderException("Couldn't load entity for " + entityRequest, cause);
+        }
+    }
+
+    @NotNull
+    private EntityModelData _loadEntity(EntityRequestDto entityRequest, boolean resolveLinks) throws ContentProviderException {
         String content = contentService.loadComponentPresentation(entityRequest).getContent();
         log.trace("Loaded entity content for {}", entityRequest);
         return _processR2EntityModel(content, entityRequest, resolveLinks);
@@ -141,7 +200,7 @@ public class DefaultEntityModelService implements EntityModelServiceSuppressLink
             modelData = toR2Converter.convertToR2(_processDd4tEntityModel(entityContent, entityRequest), entityRequest);
         } else {
             if (log.isTraceEnabled()) log.trace("Parsing entity content {}", entityContent);
-            modelData = _parseR2Content(entityContent, EntityModelData.class);
+            modelData = _parseR2Content(entityContent);
         }
         if (log.isTraceEnabled()) log.trace("processing entity model {} for entity request {}", modelData, entityRequest);
         _getModelExpander(entityRequest, resolveLinks).expandEntity(modelData);
@@ -151,15 +210,28 @@ public class DefaultEntityModelService implements EntityModelServiceSuppressLink
 
     @NotNull
     private EntityModelExpander _getModelExpander(EntityRequestDto entityRequestDto, boolean resolveLinks) {
-        return new EntityModelExpander(entityRequestDto, richTextLinkResolver,
+        EntityModelExpander expander = new EntityModelExpander(entityRequestDto, richTextLinkResolver,
                 configService, resolveLinks, batchLinkResolverFactory.getBatchLinkResolver());
+        expander.setFailuresCache(failuresCache);
+        expander.setKeywordCache(keywordCache);
+        return expander;
+    }
+
+    private EntityModelData _copyEntityModel(EntityModelData entityModel) throws ContentProviderException {
+        try {
+            TokenBuffer buffer = new TokenBuffer(objectMapper, false);
+            objectMapper.writeValue(buffer, entityModel);
+            return entityModelReader.readValue(buffer.asParser());
+        } catch (IOException e) {
+            throw new ContentProviderException("Couldn't copy entity model " + entityModel.getId(), e);
+        }
     }
 
-    private <T extends ViewModelData> T _parseR2Content(String content, Class<T> expectedClass) throws ContentProviderException {
+    private EntityModelData _parseR2Content(String content) throws ContentProviderException {
         try {
-            return objectMapper.readValue(content, expectedClass);
+            return entityModelReader.readValue(content);
         } catch (IOException e) {
-            throw new ContentProviderException("Couldn't deserialize content '" + content + "' for " + expectedClass, e);
+            throw new ContentProviderException("Couldn't deserialize content '" + content + "' for " + EntityModelData.class, e);
         }
     }
 }
\ No newline at end of file
@@ -1,22 +1,31 @@
 package com.sdl.dxa.modelservice.service;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.filter.FilteringParserDelegate;
+import com.fasterxml.jackson.core.filter.TokenFilter;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 import com.sdl.dxa.api.datamodel.model.EntityModelData;
 import com.sdl.dxa.api.datamodel.model.PageModelData;
 import com.sdl.dxa.api.datamodel.model.RegionModelData;
-import com.sdl.dxa.api.datamodel.model.ViewModelData;
 import com.sdl.dxa.common.dto.DataModelType;
+import com.sdl.dxa.common.dto.DepthCounter;
 import com.sdl.dxa.common.dto.EntityRequestDto;
 import com.sdl.dxa.common.dto.PageRequestDto;
+import com.sdl.dxa.modelservice.service.caching.FailuresCache;
+import com.sdl.dxa.modelservice.service.caching.KeywordCache;
 import com.sdl.dxa.modelservice.service.processing.conversion.ToDd4tConverter;
 import com.sdl.dxa.modelservice.service.processing.conversion.ToR2Converter;
 import com.sdl.dxa.modelservice.service.processing.expansion.DataModelExpansionException;
+import com.sdl.dxa.modelservice.service.processing.expansion.ExpansionDeadline;
 import com.sdl.dxa.modelservice.service.processing.expansion.PageModelExpander;
+import com.sdl.dxa.tridion.linking.AsyncBatchLinkResolver;
 import com.sdl.dxa.tridion.linking.RichTextLinkResolver;
+import com.sdl.dxa.tridion.linking.api.BatchLinkResolver;
 import com.sdl.dxa.tridion.linking.api.BatchLinkResolverFactory;
 import com.sdl.dxa.tridion.linking.impl.RichTextLinkResolverImpl;
 import com.sdl.webapp.common.api.content.ContentProviderException;
-import com.tridion.util.StringUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.math.NumberUtils;
 import org.dd4t.contentmodel.Page;
@@ -28,15 +37,27 @@ import org.dd4t.core.processors.impl.RichTextResolver;
 import org.dd4t.core.util.HttpRequestContext;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import static com.sdl.dxa.modelservice.service.ContentService.getModelType;
 
@@ -47,10 +68,17 @@ import static com.sdl.dxa.modelservice.service.ContentService.getModelType;
  */
 @Slf4j
 @Service
-public class DefaultPageModelService implements PageModelService, LegacyPageModelService {
+public class DefaultPageModelService implements PageModelService, LegacyPageModelService, ProjectedPageModelService {
+
+    /**
+     * Models of requests with a time budget may be partial, they are not cached here, see {@link ExpansionDeadline}.
+     */
+    private static final String NOT_BUDGETED = "T(com.sdl.dxa.modelservice.service.processing.expansion.ExpansionDeadline).current() == null";
 
     private final ObjectMapper objectMapper;
 
+    private final ObjectReader pageModelReader;
+
     private final ConfigService configService;
 
     private final ContentService contentService;
@@ -69,6 +97,18 @@ public class DefaultPageModelService implements PageModelService, LegacyPageMode
 
     private final BatchLinkResolverFactory batchLinkResolverFactory;
 
+    private ExecutorService entityExpansionExecutor;
+
+    private ExecutorService includePageExecutor;
+
+    private ExecutorService asyncLinkResolutionExecutor;
+
+    private CacheManager cacheManager;
+
+    private FailuresCache failuresCache;
+
+    private KeywordCache keywordCache;
+
     @Autowired
     public DefaultPageModelService(@Qualifier("dxaR2ObjectMapper") ObjectMapper objectMapper,
                                    ConfigService configService,
@@ -80,6 +120,7 @@ public class DefaultPageModelService implements PageModelService, LegacyPageMode
                                    DataBinder dd4tDataBinder,
                                    RichTextResolver dd4tRichTextResolver, BatchLinkResolverFactory batchLinkResolverFactory) {
         this.objectMapper = objectMapper;
+        this.pageModelReader = objectMapper.readerFor(PageModelData.class);
         this.configService = configService;
         this.entityModelService = entityModelService;
         this.contentService = contentService;
@@ -91,25 +132,75 @@ public class DefaultPageModelService implements PageModelService, LegacyPageMode
         this.batchLinkResolverFactory = batchLinkResolverFactory;
     }
 
+    @Autowired(required = false)
+    @Qualifier("entityExpansionExecutor")
+    public void setEntityExpansionExecutor(ExecutorService entityExpansionExecutor) {
+        this.entityExpansionExecutor = entityExpansionExecutor;
+    }
+
+    @Autowired(required = false)
+    @Qualifier("includePageExecutor")
+    public void setIncludePageExecutor(ExecutorService includePageExecutor) {
+        this.includePageExecutor = includePageExecutor;
+    }
+
+    @Autowired(required = false)
+    @Qualifier("asyncLinkResolutionExecutor")
+    public void setAsyncLinkResolutionExecutor(ExecutorService asyncLinkResolutionExecutor) {
+        this.asyncLinkResolutionExecutor = asyncLinkResolutionExecutor;
+    }
+
+    @Autowired(required = false)
+    public void setFailuresCache(FailuresCache failuresCache) {
+        this.failuresCache = failuresCache;
+    }
+
+    @Autowired(required = false)
+    public void setKeywordCache(KeywordCache keywordCache) {
+        this.keywordCache = keywordCache;
+    }
+
+    @Autowired(required = false)
+    public void setCacheManager(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
     @Override
     @NotNull
-    @Cacheable(value = "pageModels", key = "{ #root.methodName, #pageRequest }", sync = true)
+    @Cacheable(value = "pageModels", key = "{ #root.methodName, #pageRequest }", condition = NOT_BUDGETED, sync = true)
     public Page loadLegacyPageModel(PageRequestDto pageRequest) throws ContentProviderException {
         String pageContent = contentService.loadPageContent(pageRequest);
         log.trace("Loaded page content for {}", pageRequest);
-        return _processDd4tPageModel(pageContent, pageRequest);
+        return _processDd4tPageModel(pageContent, getModelType(pageContent), pageRequest);
     }
 
     @Override
     @NotNull
-    @Cacheable(value = "pageModels", key = "{ #root.methodName, #pageRequest }", sync = true)
+    @Cacheable(value = "pageModels", key = "{ #root.methodName, #pageRequest }", condition = NOT_BUDGETED, sync = true)
     public PageModelData loadPageModel(PageRequestDto pageRequest) throws ContentProviderException {
-        String pageContent = contentService.loadPageContent(pageRequest);
+        ModelContent pageContent = contentService.loadPageModelContent(pageRequest);
         log.trace("Loaded page content for {}", pageRequest);
 
         return _processR2PageModel(pageContent, pageRequest);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>Fields which are not requested are skipped while R2 content is parsed, and regions which are not requested
+     * are removed right after the page is read, so they are neither expanded nor their include pages are loaded.
+     * DD4T content is converted completely, including its include pages, before the projection is applied.
+     * Projected pages are cached under their own keys.</p>
+     */
+    @Override
+    @NotNull
+    @Cacheable(value = "pageModels", key = "{ #root.methodName, #pageRequest, #projection }", condition = NOT_BUDGETED, sync = true)
+    public PageModelData loadPageModel(PageRequestDto pageRequest, PageProjection projection) throws ContentProviderException {
+        ModelContent pageContent = contentService.loadPageModelContent(pageRequest);
+        log.trace("Loaded page content for {} with projection {}", pageRequest, projection);
+
+        return _expandR2PageModel(_readR2PageModel(pageContent, pageRequest, projection), pageRequest);
+    }
+
     private List<EntityModelData> _expandDynamicEntities(@NotNull RegionModelData region, int publicationId) throws ContentProviderException {
         List<EntityModelData> entities = new ArrayList<>();
         if (region.getRegions() != null) {
@@ -128,12 +219,11 @@ public class DefaultPageModelService implements PageModelService, LegacyPageMode
         return entities;
     }
 
-    @Contract("!null, _ -> !null")
-    private Page _processDd4tPageModel(String pageContent, PageRequestDto pageRequest) throws ContentProviderException {
-        DataModelType publishedModelType = getModelType(pageContent);
+    @Contract("!null, _, _ -> !null")
+    private Page _processDd4tPageModel(String pageContent, DataModelType publishedModelType, PageRequestDto pageRequest) throws ContentProviderException {
         if (publishedModelType == DataModelType.R2) {
             log.info("Found R2 model while requested DD4T, need to process R2 and convert, request {}", pageRequest);
-            PageModelData r2page = _processR2PageModel(pageContent, pageRequest);
+            PageModelData r2page = _expandR2PageModel(_parseR2Content(pageContent), pageRequest);
             // All entities must be loaded here, before page goes to converter
             if (r2page.getRegions() != null) {
                 for (RegionModelData region : r2page.getRegions()) {
@@ -160,16 +250,57 @@ public class DefaultPageModelService implements PageModelService, LegacyPageMode
     }
 
     @Contract("!null, _ -> !null")
-    private PageModelData _processR2PageModel(String pageContent, PageRequestDto pageRequest) throws ContentProviderException {
-        DataModelType publishedModelType = getModelType(pageContent);
-        PageModelData pageModel;
-        if (publishedModelType == DataModelType.DD4T) {
+    private PageModelData _processR2PageModel(ModelContent pageContent, PageRequestDto pageRequest) throws ContentProviderException {
+        return _expandR2PageModel(_readR2PageModel(pageContent, pageRequest, PageProjection.ALL), pageRequest);
+    }
+
+    /**
+     * Reads R2 page model from the content, keeps only the parts of the projection. Fields of R2 content are skipped
+     * while the content is parsed. DD4T content is converted completely including its include pages,
+     * and the projection is applied to the converted page.
+     */
+    @Contract("!null, _, _ -> !null")
+    private PageModelData _readR2PageModel(ModelContent modelContent, PageRequestDto pageRequest, PageProjection projection) throws ContentProviderException {
+        byte[] pageContent = modelContent.getContent();
+        if (modelContent.getModelType() == DataModelType.DD4T) {
             log.info("Found DD4T model while requested R2, need to convert, no expansion needed, request {}", pageRequest);
-            Page page = _processDd4tPageModel(pageContent, pageRequest);
-            pageModel = toR2Converter.convertToR2(page, pageRequest);
-        } else {
-            pageModel = _parseR2Content(pageContent, PageModelData.class);
+            Page page = _processDd4tPageModel(new String(pageContent, StandardCharsets.UTF_8), DataModelType.DD4T, pageRequest);
+            PageModelData pageModel = toR2Converter.convertToR2(page, pageRequest);
+            if (projection.isAll()) {
+                return pageModel;
+            }
+            try {
+                TokenBuffer buffer = new TokenBuffer(objectMapper, false);
+                objectMapper.writeValue(buffer, pageModel);
+                return _projectPageModel(buffer.asParser(), projection);
+            } catch (IOException e) {
+                throw new ContentProviderException("Couldn't read projection " + projection + " of page " + pageModel.getId(), e);
+            }
+        }
+        if (projection.isAll()) {
+            // R2 content is parsed once right from UTF-8 bytes
+            return _parseR2Content(pageContent);
+        }
+        try {
+            return _projectPageModel(objectMapper.getFactory().createParser(pageContent), projection);
+        } catch (IOException e) {
+            throw new ContentProviderException("Couldn't deserialize content of " + pageContent.length + " bytes for " + PageModelData.class, e);
         }
+    }
+
+    private PageModelData _projectPageModel(JsonParser page, PageProjection projection) throws IOException {
+        try (JsonParser parser = new FilteringParserDelegate(page, new ProjectionFilter(projection), true, true)) {
+            PageModelData pageModel = pageModelReader.readValue(parser);
+            // region name may follow its content, so regions are only filtered once they are read
+            if (pageModel != null && pageModel.getRegions() != null) {
+                pageModel.getRegions().removeIf(region -> !projection.includesRegion(region.getName()));
+            }
+            return pageModel;
+        }
+    }
+
+    @Contract("!null, _ -> !null")
+    private PageModelData _expandR2PageModel(PageModelData pageModel, PageRequestDto pageRequest) throws ContentProviderException {
         if (log.isTraceEnabled()) log.trace("processing page model {} for page request {}", pageModel, pageRequest);
         PageModelData pageModelData = _expandIncludePages(pageModel, pageRequest);
         if (log.isTraceEnabled()) log.trace("expanded include pages for {}", pageRequest);
@@ -184,8 +315,25 @@ public class DefaultPageModelService implements PageModelService, LegacyPageMode
 
     @NotNull
     private PageModelExpander _getModelExpander(PageRequestDto pageRequestDto, Integer pageId) {
-        return new PageModelExpander(pageRequestDto,
-                entityModelService, richTextLinkResolver, configService, batchLinkResolverFactory.getBatchLinkResolver(), pageId);
+        ExecutorService executor = configService.getDefaults().getEntityExpansionThreads() > 0 ? entityExpansionExecutor : null;
+        PageModelExpander expander = new PageModelExpander(pageRequestDto,
+                entityModelService, richTextLinkResolver, configService, _getBatchLinkResolver(), pageId, executor);
+        expander.setObjectMapper(objectMapper);
+        expander.setFailuresCache(failuresCache);
+        expander.setKeywordCache(keywordCache);
+        // deadline of the request, include page tasks get it from the request thread
+        expander.setDeadline(ExpansionDeadline.current());
+        return expander;
+    }
+
+    @NotNull
+    private BatchLinkResolver _getBatchLinkResolver() {
+        ConfigService.Defaults defaults = configService.getDefaults();
+        if (defaults.getAsyncLinkResolutionThreads() <= 0 || asyncLinkResolutionExecutor == null) {
+            return batchLinkResolverFactory.getBatchLinkResolver();
+        }
+        return new AsyncBatchLinkResolver(batchLinkResolverFactory::getBatchLinkResolver,
+                asyncLinkResolutionExecutor, defaults.getAsyncLinkResolutionBatchSize());
     }
 
     @Contract("!null, _ -> !null")
@@ -193,6 +341,11 @@ public class DefaultPageModelService implements PageModelService, LegacyPageMode
         if (pageModel.getRegions() == null) {
             return pageModel;
         }
+        ExecutorService executor = configService.getDefaults().getIncludePageThreads() > 0 ? includePageExecutor : null;
+        ExpansionDeadline deadline = ExpansionDeadline.current();
+        List<RegionModelData> includeRegions = new ArrayList<>();
+        List<Future<PageModelData>> includePages = new ArrayList<>();
+
         Iterator<RegionModelData> iterator = pageModel.getRegions().iterator();
         while (iterator.hasNext()) {
             RegionModelData region = iterator.next();
@@ -208,26 +361,121 @@ public class DefaultPageModelService implements PageModelService, LegacyPageMode
                     break;
                 case INCLUDE:
                 default:
-                    try {
-                        String includePageContent = contentService.loadPageContent(pageRequest.getPublicationId(), Integer.parseInt(region.getIncludePageId()));
-                        if (StringUtils.isNotEmpty(includePageContent)) {
-                            // maybe it has inner regions which we need to include?
-                            PageModelData includePage = _expandIncludePages(_processR2PageModel(includePageContent, pageRequest), pageRequest);
-
-                            if (includePage.getRegions() != null) {
-                                includePage.getRegions().forEach(region::addRegion);
-                            }
-                        }
-                    } catch (ContentProviderException e){
-                        _suppressIfNeeded(String.format("Include Page '%s' not found.",
-                                region.getIncludePageId()),
-                                configService.getErrors().isMissingIncludePageSuppress(), e);
-                    }
+                    includeRegions.add(region);
+                    includePages.add(_submitIncludePage(region.getIncludePageId(), _getIncludePageRequest(pageRequest), deadline, executor));
+            }
+        }
+
+        // all include pages are loading now, add them to regions in the original order
+        for (int i = 0; i < includeRegions.size(); i++) {
+            RegionModelData region = includeRegions.get(i);
+            try {
+                PageModelData includePage = _awaitIncludePage(includePages.get(i), region.getIncludePageId(), deadline);
+                if (includePage != null && includePage.getRegions() != null) {
+                    includePage.getRegions().forEach(region::addRegion);
+                }
+            } catch (ContentProviderException e) {
+                _suppressIfNeeded(String.format("Include Page '%s' not found.",
+                        region.getIncludePageId()),
+                        configService.getErrors().isMissingIncludePageSuppress(), e);
             }
         }
         return pageModel;
     }
 
+    /**
+     * Returns the request to expand an include page with. Include pages are expanded concurrently,
+     * so each of them counts its depth separately from the including page and other include pages.
+     */
+    private static PageRequestDto _getIncludePageRequest(PageRequestDto pageRequest) {
+        return pageRequest.toBuilder()
+                .depthCounter(new DepthCounter(pageRequest.getExpansionDepth()))
+                .build();
+    }
+
+    /**
+     * Starts loading of an include page on the executor, or prepares it to be loaded by the calling thread
+     * on {@link #_awaitIncludePage(Future, String, ExpansionDeadline)} if there is no executor.
+     * The include page is expanded within the deadline of the request.
+     */
+    private Future<PageModelData> _submitIncludePage(String includePageId, PageRequestDto pageRequest,
+                                                     @Nullable ExpansionDeadline deadline, ExecutorService executor) {
+        Callable<PageModelData> task = ExpansionDeadline.withDeadline(deadline,
+                () -> _loadIncludePage(includePageId, pageRequest, deadline));
+        return executor == null ? new FutureTask<>(task) : executor.submit(task);
+    }
+
+    /**
+     * Loads a fully expanded include page. Include pages (header, footer, etc) are the same for most pages
+     * of a publication, so they are kept in {@code includePages} cache. The cache keeps its own copy of a page,
+     * and a copy is returned on every hit because the including page modifies it while being expanded.
+     */
+    @Nullable
+    private PageModelData _loadIncludePage(String includePageId, PageRequestDto pageRequest,
+                                           @Nullable ExpansionDeadline deadline) throws ContentProviderException {
+        Cache cache = cacheManager == null ? null : cacheManager.getCache("includePages");
+        if (cache == null) {
+            return _loadAndExpandIncludePage(includePageId, pageRequest);
+        }
+
+        // every part of the request that changes how the include page is expanded
+        Object key = Arrays.asList("includePage", pageRequest.getUriType(), pageRequest.getPublicationId(), includePageId,
+                pageRequest.getIncludePages(), pageRequest.getDataModelType(), pageRequest.getContentType(),
+                pageRequest.getExpansionDepth());
+        PageModelData cached = cache.get(key, PageModelData.class);
+        if (cached != null) {
+            log.trace("Found include page {} in cache for {}", includePageId, pageRequest);
+            return _copyPageModel(cached);
+        }
+
+        PageModelData includePage = _loadAndExpandIncludePage(includePageId, pageRequest);
+        // include page expanded under a partial deadline may be incomplete
+        if (includePage != null && (deadline == null || !deadline.isPartial())) {
+            cache.put(key, _copyPageModel(includePage));
+        }
+        return includePage;
+    }
+
+    @Nullable
+    private PageModelData _loadAndExpandIncludePage(String includePageId, PageRequestDto pageRequest) throws ContentProviderException {
+        byte[] includePageContent = contentService.loadPageContentBytes(pageRequest.getPublicationId(), Integer.parseInt(includePageId));
+        if (includePageContent == null || includePageContent.length == 0) {
+            return null;
+        }
+        // maybe it has inner regions which we need to include?
+        return _expandIncludePages(_processR2PageModel(ModelContent.of(includePageContent), pageRequest), pageRequest);
+    }
+
+    @Nullable
+    private PageModelData _awaitIncludePage(Future<PageModelData> includePage, String includePageId,
+                                            @Nullable ExpansionDeadline deadline) throws ContentProviderException {
+        if (includePage instanceof FutureTask && !includePage.isDone()) {
+            ((FutureTask<PageModelData>) includePage).run();
+        }
+        try {
+            return deadline == null ? includePage.get() : includePage.get(Math.max(deadline.remainingMillis(), 0), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // the include page expands the rest within the passed deadline, so it's not cached
+            deadline.markPartial();
+            throw new ContentProviderException("Deadline passed while loading include page " + includePageId, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ContentProviderException("Interrupted while loading include page " + includePageId, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ContentProviderException) {
+                throw (ContentProviderException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new ContentProviderException("Couldn't load include page " + includePageId, cause);
+        }
+    }
+
     private void _suppressIfNeeded(String message, boolean suppressingFlag, ContentProviderException e) {
         log.warn(message, e);
         if (!suppressingFlag) {
@@ -235,11 +483,46 @@ public class DefaultPageModelService implements PageModelService, LegacyPageMode
         }
     }
 
-    private <T extends ViewModelData> T _parseR2Content(String content, Class<T> expectedClass) throws ContentProviderException {
+    private PageModelData _copyPageModel(PageModelData pageModel) throws ContentProviderException {
+        try {
+            TokenBuffer buffer = new TokenBuffer(objectMapper, false);
+            objectMapper.writeValue(buffer, pageModel);
+            return pageModelReader.readValue(buffer.asParser());
+        } catch (IOException e) {
+            throw new ContentProviderException("Couldn't copy page model " + pageModel.getId(), e);
+        }
+    }
+
+    private PageModelData _parseR2Content(String content) throws ContentProviderException {
+        try {
+            return pageModelReader.readValue(content);
+        } catch (IOException e) {
+            throw new ContentProviderException("Couldn't deserialize content '" + content + "' for " + PageModelData.class, e);
+        }
+    }
+
+    private PageModelData _parseR2Content(byte[] content) throws ContentProviderException {
         try {
-            return objectMapper.readValue(content, expectedClass);
+            return pageModelReader.readValue(content);
         } catch (IOException e) {
-            throw new ContentProviderException("Couldn't deserialize content '" + content + "' for " + expectedClass, e);
+            throw new ContentProviderException("Couldn't deserialize content of " + content.length + " bytes for " + PageModelData.class, e);
+        }
+    }
+
+    /**
+     * Skips top-level fields of a page which are not in the projection.
+     */
+    private static final class ProjectionFilter extends TokenFilter {
+
+        private final PageProjection projection;
+
+        private ProjectionFilter(PageProjection projection) {
+            this.projection = projection;
+        }
+
+        @Override
+        public TokenFilter includeProperty(String name) {
+            return projection.includesField(name) ? TokenFilter.INCLUDE_ALL : null;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,28 @@
+package com.sdl.dxa.modelservice.service;
+
+import com.sdl.dxa.common.dto.DataModelType;
+import lombok.Value;
+
+import java.io.Serializable;
+
+/**
+ * Raw content of a page in UTF-8 with the type of its model. The type is detected once when the content is loaded
+ * and is cached together with the content, so processing cached content never reads it again to find the type.
+ */
+@Value
+public class ModelContent implements Serializable {
+
+    byte[] content;
+
+    DataModelType modelType;
+
+    /**
+     * Detects model type of the content and creates a holder for both.
+     *
+     * @param content content of a page in UTF-8
+     * @return content with its model type
+     */
+    public static ModelContent of(byte[] content) {
+        return new ModelContent(content, ContentService.getModelType(content));
+    }
+}
@@ -0,0 +1,72 @@
+package com.sdl.dxa.modelservice.service;
+
+import lombok.Value;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Parts of a page model requested by a client, e.g. {@code regions=Main,Hero} or {@code fields=meta,title}.
+ * Only the requested top-level regions and fields of a page are kept and expanded, names are case-insensitive.
+ * Page ID is always kept. Projections are compared by value, so they may be a part of cache keys.
+ */
+@Value
+public class PageProjection {
+
+    public static final PageProjection ALL = new PageProjection(null, null);
+
+    /**
+     * Lower-case names of top-level regions to keep, or {@code null} to keep all regions.
+     */
+    Set<String> regions;
+
+    /**
+     * Lower-case names of top-level fields to keep, or {@code null} to keep all fields.
+     */
+    Set<String> fields;
+
+    /**
+     * Creates a projection from comma-separated lists of names.
+     *
+     * @param regions names of regions to keep, or {@code null} or empty to keep all regions
+     * @param fields  names of fields to keep, or {@code null} or empty to keep all fields
+     * @return projection of the page
+     */
+    public static PageProjection of(@Nullable String regions, @Nullable String fields) {
+        Set<String> regionNames = _parseNames(regions);
+        Set<String> fieldNames = _parseNames(fields);
+        return regionNames == null && fieldNames == null ? ALL : new PageProjection(regionNames, fieldNames);
+    }
+
+    public boolean isAll() {
+        return regions == null && fields == null;
+    }
+
+    public boolean includesRegion(String name) {
+        return regions == null || (name != null && regions.contains(name.toLowerCase(Locale.ROOT)));
+    }
+
+    public boolean includesField(String name) {
+        if (fields == null) {
+            return true;
+        }
+        String field = name.toLowerCase(Locale.ROOT);
+        // type information and ID are needed to read and expand the page
+        return field.startsWith("$") || "id".equals(field) || fields.contains(field);
+    }
+
+    @Nullable
+    private static Set<String> _parseNames(@Nullable String names) {
+        if (names == null || names.trim().isEmpty()) {
+            return null;
+        }
+        return Arrays.stream(names.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .map(name -> name.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+    }
+}
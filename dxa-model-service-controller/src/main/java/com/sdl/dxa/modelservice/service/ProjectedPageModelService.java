@@ -0,0 +1,20 @@
+package com.sdl.dxa.modelservice.service;
+
+import com.sdl.dxa.api.datamodel.model.PageModelData;
+import com.sdl.dxa.common.dto.PageRequestDto;
+import com.sdl.webapp.common.api.content.ContentProviderException;
+import org.jetbrains.annotations.NotNull;
+
+public interface ProjectedPageModelService {
+
+    /**
+     * Loads R2 page model with only the requested parts of the page, the other parts are not expanded.
+     *
+     * @param pageRequest current page request
+     * @param projection  parts of the page to load
+     * @return R2 model with the requested parts
+     * @throws ContentProviderException if something goes wrong
+     */
+    @NotNull
+    PageModelData loadPageModel(PageRequestDto pageRequest, PageProjection projection) throws ContentProviderException;
+}
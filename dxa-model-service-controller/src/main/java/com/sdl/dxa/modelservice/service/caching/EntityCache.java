@@ -1,28 +1,86 @@
 package com.sdl.dxa.modelservice.service.caching;
 
-import com.sdl.dxa.api.datamodel.model.EntityModelData;
-
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
-public class EntityCache <KType, VType>{
+/**
+ * Bounded thread-safe memo meant to live as long as a single model expansion, e.g. to load an entity
+ * used several times on the same page only once. Least recently used entries are evicted when the capacity is reached,
+ * capacity of {@code 0} or less disables the memo. Hits and misses are counted for diagnostics.
+ */
+public class EntityCache<KType, VType> {
 
-    private Map<KType, VType> store = new HashMap<>();
+    private final int capacity;
 
-    public Map<KType, VType> getStore() {
-        return store;
+    private final Map<KType, VType> store;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    public EntityCache(int capacity) {
+        this.capacity = capacity;
+        this.store = Collections.synchronizedMap(new LinkedHashMap<KType, VType>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<KType, VType> eldest) {
+                return size() > EntityCache.this.capacity;
+            }
+        });
     }
 
+    /**
+     * Returns a copy of the current content of the memo.
+     *
+     * @return snapshot of the memo
+     */
+    public Map<KType, VType> getStore() {
+        synchronized (store) {
+            return new HashMap<>(store);
+        }
+    }
 
     public VType get(KType key) {
-        return store.get(key);
+        VType value = store.get(key);
+        if (value == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return value;
     }
 
     public VType put(KType key, VType value) {
+        if (capacity <= 0) {
+            return null;
+        }
         return store.put(key, value);
     }
 
     public void clear() {
         store.clear();
     }
+
+    public int size() {
+        return store.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    @Override
+    public String toString() {
+        return "EntityCache{size=" + size() + ", capacity=" + capacity + ", hits=" + getHits() + ", misses=" + getMisses() + "}";
+    }
 }
@@ -0,0 +1,118 @@
+package com.sdl.dxa.modelservice.service.caching;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.metrics.CounterService;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers lookups of items which were not found in {@code failures} cache, so requests for missing pages, entities
+ * and keywords don't go to Broker every time. Entries expire with the cache, so published items are found again.
+ * <p>Hits and misses are counted per type of item and reported as {@code counter.failures.<type>.hit|miss} metrics
+ * if metrics are available. Does nothing if there is no {@code failures} cache.</p>
+ */
+@Slf4j
+@Component
+public class FailuresCache {
+
+    public enum Type {
+        PAGE, ENTITY, KEYWORD
+    }
+
+    private static final String CACHE_NAME = "failures";
+
+    private final Map<Type, AtomicLong> hits = new EnumMap<>(Type.class);
+
+    private final Map<Type, AtomicLong> misses = new EnumMap<>(Type.class);
+
+    private Cache cache;
+
+    private CounterService counterService;
+
+    public FailuresCache() {
+        for (Type type : Type.values()) {
+            hits.put(type, new AtomicLong());
+            misses.put(type, new AtomicLong());
+        }
+    }
+
+    @Autowired(required = false)
+    public void setCacheManager(CacheManager cacheManager) {
+        this.cache = cacheManager.getCache(CACHE_NAME);
+        if (this.cache == null) {
+            log.warn("There is no '{}' cache, lookups of missing items are not remembered", CACHE_NAME);
+        }
+    }
+
+    @Autowired(required = false)
+    public void setCounterService(CounterService counterService) {
+        this.counterService = counterService;
+    }
+
+    /**
+     * Checks whether the lookup of the item failed recently.
+     *
+     * @param type type of the item
+     * @param key  parts of the key identifying the lookup, e.g. publication ID and item ID
+     * @return whether the item is known to be missing
+     */
+    public boolean isFailed(Type type, Object... key) {
+        if (cache == null) {
+            return false;
+        }
+
+        boolean failed = cache.get(_key(type, key)) != null;
+        String name = type.name().toLowerCase();
+        if (failed) {
+            hits.get(type).incrementAndGet();
+            _count("failures." + name + ".hit");
+            log.debug("Lookup of {} {} is known to fail", name, Arrays.toString(key));
+        } else {
+            misses.get(type).incrementAndGet();
+            _count("failures." + name + ".miss");
+        }
+        return failed;
+    }
+
+    /**
+     * Remembers the item as missing.
+     *
+     * @param type type of the item
+     * @param key  parts of the key identifying the lookup, the same as for {@link #isFailed(Type, Object...)}
+     */
+    public void recordFailure(Type type, Object... key) {
+        if (cache != null) {
+            cache.put(_key(type, key), Boolean.TRUE);
+        }
+    }
+
+    public long getHits(Type type) {
+        return hits.get(type).get();
+    }
+
+    public long getMisses(Type type) {
+        return misses.get(type).get();
+    }
+
+    private void _count(String metric) {
+        if (counterService != null) {
+            counterService.increment(metric);
+        }
+    }
+
+    private static List<Object> _key(Type type, Object... key) {
+        List<Object> parts = new ArrayList<>(key.length + 1);
+        parts.add(type.name());
+        parts.addAll(Arrays.asList(key));
+        return parts;
+    }
+}
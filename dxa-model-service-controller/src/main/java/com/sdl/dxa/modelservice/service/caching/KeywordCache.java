@@ -0,0 +1,211 @@
+package com.sdl.dxa.modelservice.service.caching;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.sdl.dxa.modelservice.service.processing.expansion.ExpansionDeadline;
+import com.sdl.webapp.common.util.TcmUtils;
+import com.tridion.meta.NameValuePair;
+import com.tridion.taxonomies.Keyword;
+import com.tridion.taxonomies.TaxonomyFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Cache of taxonomy keywords by keyword URIs, so keywords used on many pages are not requested for every page.
+ * Keyword URIs contain publication ID, so keywords are cached per publication. Entries expire after a configured
+ * time to live to follow republished keywords. Keywords which cannot be found are remembered in {@link FailuresCache}.
+ * <p>Keywords of a model may be {@link #preload(Collection, ExecutorService, ExpansionDeadline) preloaded} all at once
+ * before the model is traversed, including keywords from metadata of the loaded keywords.</p>
+ */
+@Slf4j
+@Component
+public class KeywordCache {
+
+    private final boolean enabled;
+
+    private final Cache<String, Keyword> keywords;
+
+    private FailuresCache failuresCache;
+
+    @Autowired
+    public KeywordCache(@Value("${dxa.defaults.keyword-cache-max-size:10000}") long maxSize,
+                        @Value("${dxa.defaults.keyword-cache-ttl:60}") long ttlSeconds) {
+        this.enabled = maxSize > 0 && ttlSeconds > 0;
+        this.keywords = CacheBuilder.newBuilder()
+                .maximumSize(Math.max(maxSize, 0))
+                .expireAfterWrite(Math.max(ttlSeconds, 0), TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        log.info("Keyword cache is {}, max size = {}, ttl = {} seconds", enabled ? "enabled" : "disabled", maxSize, ttlSeconds);
+    }
+
+    @Autowired(required = false)
+    public void setFailuresCache(FailuresCache failuresCache) {
+        this.failuresCache = failuresCache;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the keyword from cache, or loads it if it's not cached.
+     *
+     * @param keywordUri URI of the keyword
+     * @return keyword or {@code null} if it cannot be found
+     */
+    @Nullable
+    public Keyword getKeyword(String keywordUri) {
+        Keyword keyword = enabled ? keywords.getIfPresent(keywordUri) : null;
+        return keyword != null ? keyword : _load(keywordUri);
+    }
+
+    /**
+     * Loads keywords which are not cached yet, and then keywords from their metadata. Keywords are loaded concurrently
+     * if an executor is given. Keywords which cannot be loaded are skipped, they are requested again when they are needed.
+     * Preloading stops once the deadline passes, keywords which are still loaded in background are cached when they are.
+     *
+     * @param keywordUris URIs of keywords to load
+     * @param executor    executor to load keywords on, or {@code null} to load them one by one
+     * @param deadline    deadline of the request, or {@code null} to preload all keywords
+     */
+    public void preload(Collection<String> keywordUris, @Nullable ExecutorService executor, @Nullable ExpansionDeadline deadline) {
+        if (!enabled) {
+            return;
+        }
+
+        Set<String> toLoad = new LinkedHashSet<>(keywordUris);
+        while (!toLoad.isEmpty()) {
+            if (deadline != null && deadline.isExpired()) {
+                log.debug("Deadline passed, {} keywords are not preloaded", toLoad.size());
+                return;
+            }
+
+            toLoad.removeIf(uri -> keywords.getIfPresent(uri) != null);
+            log.debug("Preloading {} keywords", toLoad.size());
+
+            List<Keyword> loaded = _loadAll(toLoad, executor, deadline);
+            toLoad = new LinkedHashSet<>();
+            for (Keyword keyword : loaded) {
+                toLoad.addAll(_getMetadataKeywordUris(keyword));
+            }
+        }
+    }
+
+    public void clear() {
+        keywords.invalidateAll();
+    }
+
+    public long size() {
+        return keywords.size();
+    }
+
+    public long getHitCount() {
+        return keywords.stats().hitCount();
+    }
+
+    public long getMissCount() {
+        return keywords.stats().missCount();
+    }
+
+    @Nullable
+    Keyword loadKeyword(String keywordUri) {
+        return new TaxonomyFactory().getTaxonomyKeyword(keywordUri);
+    }
+
+    private List<Keyword> _loadAll(Collection<String> keywordUris, @Nullable ExecutorService executor,
+                                   @Nullable ExpansionDeadline deadline) {
+        List<Keyword> loaded = new ArrayList<>(keywordUris.size());
+        if (executor == null || keywordUris.size() < 2) {
+            for (String uri : keywordUris) {
+                if (deadline != null && deadline.isExpired()) {
+                    break;
+                }
+                _addIfLoaded(loaded, () -> _load(uri), uri);
+            }
+            return loaded;
+        }
+
+        List<String> uris = new ArrayList<>(keywordUris);
+        List<Future<Keyword>> futures = new ArrayList<>(uris.size());
+        for (String uri : uris) {
+            futures.add(executor.submit(() -> _load(uri)));
+        }
+        for (int i = 0; i < futures.size(); i++) {
+            Future<Keyword> future = futures.get(i);
+            _addIfLoaded(loaded, deadline == null ? future::get :
+                    () -> future.get(Math.max(deadline.remainingMillis(), 0), TimeUnit.MILLISECONDS), uris.get(i));
+        }
+        return loaded;
+    }
+
+    private void _addIfLoaded(List<Keyword> loaded, KeywordLoader loader, String keywordUri) {
+        try {
+            Keyword keyword = loader.load();
+            if (keyword != null) {
+                loaded.add(keyword);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (TimeoutException e) {
+            log.debug("Deadline passed while preloading {}, it is cached when it's loaded", keywordUri);
+        } catch (ExecutionException | RuntimeException e) {
+            log.debug("Couldn't preload {}, it will be loaded when needed", keywordUri, e);
+        }
+    }
+
+    @Nullable
+    private Keyword _load(String keywordUri) {
+        if (failuresCache != null && failuresCache.isFailed(FailuresCache.Type.KEYWORD, keywordUri)) {
+            return null;
+        }
+        Keyword keyword = loadKeyword(keywordUri);
+        if (keyword == null) {
+            if (failuresCache != null) {
+                failuresCache.recordFailure(FailuresCache.Type.KEYWORD, keywordUri);
+            }
+        } else if (enabled) {
+            keywords.put(keywordUri, keyword);
+        }
+        return keyword;
+    }
+
+    private static List<String> _getMetadataKeywordUris(Keyword keyword) {
+        List<String> uris = new ArrayList<>();
+        if (keyword.getKeywordMeta() == null || keyword.getKeywordMeta().getNameValues() == null) {
+            return uris;
+        }
+
+        String publicationId = String.valueOf(TcmUtils.getPublicationId(keyword.getKeywordURI()));
+        for (NameValuePair value : keyword.getKeywordMeta().getNameValues().values()) {
+            String firstValue = String.valueOf(value.getFirstValue());
+            if (TcmUtils.isTcmUri(firstValue) && TcmUtils.getItemType(firstValue) == TcmUtils.KEYWORD_ITEM_TYPE) {
+                for (Object uri : value.getMultipleValues()) {
+                    // expanders request metadata keywords in publication of the keyword
+                    uris.add(TcmUtils.buildKeywordTcmUri(publicationId, String.valueOf(TcmUtils.getItemId(String.valueOf(uri)))));
+                }
+            }
+        }
+        return uris;
+    }
+
+    @FunctionalInterface
+    private interface KeywordLoader {
+
+        Keyword load() throws InterruptedException, ExecutionException, TimeoutException;
+    }
+}
@@ -0,0 +1,179 @@
+package com.sdl.dxa.modelservice.service.caching;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.sdl.dxa.common.util.PathUtils;
+import com.sdl.dxa.tridion.compatibility.TridionQueryLoader;
+import com.sdl.webapp.common.util.TcmUtils;
+import com.tridion.broker.StorageException;
+import com.tridion.broker.querying.criteria.content.ItemTypeCriteria;
+import com.tridion.broker.querying.criteria.content.PublicationCriteria;
+import com.tridion.broker.querying.criteria.operators.AndCriteria;
+import com.tridion.meta.PageMeta;
+import com.tridion.meta.PageMetaFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.sdl.dxa.common.util.PathUtils.normalizePathToDefaults;
+
+/**
+ * Index of page IDs by page URLs per publication, so pages requested by path don't need a Broker query to find
+ * the page ID. Filled with URLs of requested pages, publications may also be loaded completely at startup
+ * using {@code dxa.defaults.page-url-index-preload}. Entries expire after a configured time to live to follow
+ * moved pages, a page which cannot be loaded by its indexed ID should be {@link #forget(int, String) forgotten}.
+ * <p>Requested paths are indexed by their {@link #getIndexUrl(String) index URLs}. A path without extension finds
+ * either the page or the index page of a folder, so it's indexed apart from the explicit URL of the page.</p>
+ */
+@Slf4j
+@Component
+public class PageUrlIndex {
+
+    private static final String INDEX_PAGE_SUFFIX = "/index.html";
+
+    private static final String DEFAULT_EXTENSION = ".html";
+
+    /**
+     * Marks URLs of requests without extension, normalized URLs don't end with it.
+     */
+    private static final String EXTENSIONLESS_MARKER = "*";
+
+    private final boolean enabled;
+
+    private final Cache<String, Integer> index;
+
+    @Value("#{'${dxa.defaults.page-url-index-preload:}'.split(',')}")
+    private List<String> preloadPublications;
+
+    private TridionQueryLoader queryLoader;
+
+    @Autowired
+    public PageUrlIndex(@Value("${dxa.defaults.page-url-index-max-size:100000}") long maxSize,
+                        @Value("${dxa.defaults.page-url-index-ttl:60}") long ttlSeconds) {
+        this.enabled = maxSize > 0 && ttlSeconds > 0;
+        this.index = CacheBuilder.newBuilder()
+                .maximumSize(Math.max(maxSize, 0))
+                .expireAfterWrite(Math.max(ttlSeconds, 0), TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        log.info("Page URL index is {}, max size = {}, ttl = {} seconds", enabled ? "enabled" : "disabled", maxSize, ttlSeconds);
+    }
+
+    @Autowired(required = false)
+    public void setQueryLoader(TridionQueryLoader queryLoader) {
+        this.queryLoader = queryLoader;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the URL a requested path is indexed by.
+     *
+     * @param path requested path of the page
+     * @return normalized URL of the path, marked if the path has no extension
+     */
+    public static String getIndexUrl(String path) {
+        String url = normalizePathToDefaults(path);
+        return PathUtils.hasExtension(path) ? url : url + EXTENSIONLESS_MARKER;
+    }
+
+    /**
+     * Returns ID of the page with the given URL if it's known.
+     *
+     * @param publicationId publication of the page
+     * @param url           index URL of the page
+     * @return page ID or {@code null} if it's not in the index
+     */
+    @Nullable
+    public Integer getPageId(int publicationId, String url) {
+        return enabled ? index.getIfPresent(_key(publicationId, url)) : null;
+    }
+
+    public void put(int publicationId, String url, int pageId) {
+        if (enabled) {
+            index.put(_key(publicationId, url), pageId);
+        }
+    }
+
+    public void forget(int publicationId, String url) {
+        index.invalidate(_key(publicationId, url));
+    }
+
+    public void clear() {
+        index.invalidateAll();
+    }
+
+    public long size() {
+        return index.size();
+    }
+
+    public long getHitCount() {
+        return index.stats().hitCount();
+    }
+
+    public long getMissCount() {
+        return index.stats().missCount();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        if (!enabled || queryLoader == null) {
+            return;
+        }
+
+        for (String publication : preloadPublications) {
+            if (!publication.trim().isEmpty()) {
+                preload(Integer.parseInt(publication.trim()));
+            }
+        }
+    }
+
+    /**
+     * Loads URLs of all pages of a publication into the index. Pages are also indexed for requests without extension,
+     * index pages are then indexed without {@code /index.html} unless there is a page with such URL, the same way
+     * the Broker query finds them. Explicit URLs only find the page with that URL.
+     *
+     * @param publicationId publication to load
+     */
+    public void preload(int publicationId) {
+        long start = System.currentTimeMillis();
+        try {
+            String[] pages = queryLoader.findItems(new AndCriteria(new PublicationCriteria(publicationId), new ItemTypeCriteria(TcmUtils.PAGE_ITEM_TYPE)));
+            PageMetaFactory pageMetaFactory = new PageMetaFactory(publicationId);
+            int indexed = 0;
+            for (String pageUri : pages) {
+                PageMeta pageMeta = pageMetaFactory.getMeta(pageUri);
+                if (pageMeta == null || pageMeta.getURLPath() == null) {
+                    continue;
+                }
+
+                String url = pageMeta.getURLPath();
+                put(publicationId, url, pageMeta.getId());
+                indexed++;
+                if (url.endsWith(DEFAULT_EXTENSION)) {
+                    put(publicationId, url + EXTENSIONLESS_MARKER, pageMeta.getId());
+                }
+                if (url.endsWith(INDEX_PAGE_SUFFIX)) {
+                    String folderUrl = url.substring(0, url.length() - INDEX_PAGE_SUFFIX.length()) + DEFAULT_EXTENSION;
+                    index.asMap().putIfAbsent(_key(publicationId, folderUrl + EXTENSIONLESS_MARKER), pageMeta.getId());
+                }
+            }
+            log.info("Preloaded {} page URLs of publication {} in {} ms", indexed, publicationId, System.currentTimeMillis() - start);
+        } catch (StorageException | RuntimeException e) {
+            log.warn("Couldn't preload page URLs of publication {}, they will be indexed when requested", publicationId, e);
+        }
+    }
+
+    private static String _key(int publicationId, String url) {
+        return publicationId + ":" + url;
+    }
+}
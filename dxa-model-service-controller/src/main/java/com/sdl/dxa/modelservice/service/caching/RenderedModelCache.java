@@ -0,0 +1,274 @@
+package com.sdl.dxa.modelservice.service.caching;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sdl.dxa.modelservice.service.processing.expansion.ExpansionDeadline;
+import com.sdl.dxa.modelservice.spring.SmileHttpMessageConverter;
+import com.sdl.webapp.common.api.content.ContentProviderException;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache of models already serialized to JSON as they are sent in responses, so a cache hit is written out as is
+ * without serializing the model again. Models are serialized with the object mapper of the JSON message converter,
+ * so the response is the same as if the model was returned. Models themselves are still cached by the services
+ * for internal use.
+ * <p>Every rendered model has a strong ETag computed from its content, so clients may skip downloading a model
+ * they already have.</p>
+ * <p>Rendered models are compressed with gzip once when they are rendered and kept compressed
+ * (see {@code dxa.defaults.rendered-model-compression}). Clients accepting gzip get the compressed bytes as is,
+ * other clients get them decompressed.</p>
+ * <p>Models may also be rendered to Smile for clients preferring it, Smile models are cached under their own keys.</p>
+ * <p>Models which are {@link ExpansionDeadline#isPartial() partial} are rendered but never cached.</p>
+ */
+@Slf4j
+@Component
+public class RenderedModelCache {
+
+    private static final String CACHE_NAME = "renderedModels";
+
+    /**
+     * Loads a model to render if it's not cached.
+     */
+    @FunctionalInterface
+    public interface ModelLoader {
+
+        Object load() throws ContentProviderException;
+    }
+
+    /**
+     * Model serialized to JSON with its ETag, possibly compressed with gzip.
+     */
+    public static class RenderedModel {
+
+        private static final String GZIP = "gzip";
+
+        private final byte[] content;
+
+        private final boolean gzipped;
+
+        private final String eTag;
+
+        RenderedModel(byte[] content, boolean compress) {
+            this.eTag = "\"" + DigestUtils.md5DigestAsHex(content) + "\"";
+            this.gzipped = compress;
+            this.content = compress ? _gzip(content) : content;
+        }
+
+        /**
+         * Returns the plain model, decompresses it if it's stored compressed.
+         *
+         * @return model serialized to JSON in UTF-8
+         */
+        public byte[] getContent() {
+            return gzipped ? _gunzip(content) : content;
+        }
+
+        public boolean isGzipped() {
+            return gzipped;
+        }
+
+        /**
+         * Returns ETag of the plain model. Compressed model has its own ETag, see {@link #toResponse(MediaType, String)}.
+         *
+         * @return strong ETag of the model
+         */
+        public String getETag() {
+            return eTag;
+        }
+
+        /**
+         * Builds response with the model, sends compressed model as is if the client accepts gzip.
+         * With ETag set Spring answers {@code 304 Not Modified} without body to a matching {@code If-None-Match}.
+         *
+         * @param contentType    content type of the response
+         * @param acceptEncoding value of {@code Accept-Encoding} header of the request
+         * @return response with the model
+         */
+        public ResponseEntity<byte[]> toResponse(MediaType contentType, @Nullable String acceptEncoding) {
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .contentType(contentType)
+                    .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+            if (gzipped && _acceptsGzip(acceptEncoding)) {
+                // representations with different encodings must not share a strong ETag
+                return response.header(HttpHeaders.CONTENT_ENCODING, GZIP)
+                        .eTag(eTag.substring(0, eTag.length() - 1) + "-" + GZIP + "\"")
+                        .body(content);
+            }
+            return response.eTag(eTag).body(getContent());
+        }
+
+        /**
+         * Checks {@code Accept-Encoding} the way RFC 7231 defines it: explicit {@code gzip} entry takes precedence
+         * over {@code *}, and a coding is accepted only if its quality value is above zero.
+         */
+        private static boolean _acceptsGzip(@Nullable String acceptEncoding) {
+            if (acceptEncoding == null) {
+                return false;
+            }
+            Double gzipQuality = null;
+            Double anyQuality = null;
+            for (String coding : acceptEncoding.split(",")) {
+                String[] parts = coding.trim().split(";");
+                String name = parts[0].trim();
+                if (GZIP.equalsIgnoreCase(name)) {
+                    gzipQuality = _quality(parts);
+                } else if ("*".equals(name)) {
+                    anyQuality = _quality(parts);
+                }
+            }
+            if (gzipQuality != null) {
+                return gzipQuality > 0;
+            }
+            return anyQuality != null && anyQuality > 0;
+        }
+
+        private static double _quality(String[] parts) {
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.length() > 2 && parameter.substring(0, 2).equalsIgnoreCase("q=")) {
+                    try {
+                        return Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        // invalid quality value, the coding is not considered acceptable
+                        return 0;
+                    }
+                }
+            }
+            return 1;
+        }
+
+        private static byte[] _gzip(byte[] content) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(content.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                gzip.write(content);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Couldn't compress rendered model", e);
+            }
+            return out.toByteArray();
+        }
+
+        private static byte[] _gunzip(byte[] content) {
+            try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(content))) {
+                return StreamUtils.copyToByteArray(gzip);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Couldn't decompress rendered model", e);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Renderer {
+
+        byte[] render(Object model) throws IOException;
+    }
+
+    private final boolean enabled;
+
+    private final ObjectMapper objectMapper;
+
+    private final Cache cache;
+
+    private final SmileHttpMessageConverter smileConverter;
+
+    @Value("${dxa.defaults.rendered-model-compression:true}")
+    private boolean compression = true;
+
+    @Autowired
+    public RenderedModelCache(@Value("${dxa.defaults.rendered-model-cache:true}") boolean enabled,
+                              MappingJackson2HttpMessageConverter jsonConverter,
+                              CacheManager cacheManager) {
+        this.objectMapper = jsonConverter.getObjectMapper();
+        this.smileConverter = new SmileHttpMessageConverter(objectMapper);
+        this.cache = cacheManager.getCache(CACHE_NAME);
+        this.enabled = enabled && cache != null;
+        log.info("Rendered models cache is {}", this.enabled ? "enabled" : "disabled");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setCompression(boolean compression) {
+        this.compression = compression;
+    }
+
+    /**
+     * Returns the model serialized to JSON, loads and serializes it if it's not cached yet.
+     *
+     * @param loader loader of the model
+     * @param key    parts of the key identifying the model, e.g. the request
+     * @return model serialized to JSON in UTF-8 with its ETag, or {@code null} if there is no model
+     * @throws ContentProviderException if the model cannot be loaded or serialized
+     */
+    public RenderedModel getOrRender(ModelLoader loader, Object... key) throws ContentProviderException {
+        return _getOrRender(loader, objectMapper::writeValueAsBytes, Arrays.asList(key));
+    }
+
+    /**
+     * Returns the model serialized to Smile, loads and serializes it if it's not cached yet.
+     *
+     * @param loader loader of the model
+     * @param key    parts of the key identifying the model, e.g. the request
+     * @return model serialized to Smile with its ETag, or {@code null} if there is no model
+     * @throws ContentProviderException if the model cannot be loaded or serialized
+     */
+    public RenderedModel getOrRenderSmile(ModelLoader loader, Object... key) throws ContentProviderException {
+        return _getOrRender(loader, smileConverter::writeValueAsBytes, _smileKey(key));
+    }
+
+    private static List<Object> _smileKey(Object... key) {
+        List<Object> cacheKey = new ArrayList<>(key.length + 1);
+        cacheKey.add(SmileHttpMessageConverter.APPLICATION_SMILE_VALUE);
+        cacheKey.addAll(Arrays.asList(key));
+        return cacheKey;
+    }
+
+    private RenderedModel _getOrRender(ModelLoader loader, Renderer renderer, Object cacheKey) throws ContentProviderException {
+        Cache.ValueWrapper cached = enabled ? cache.get(cacheKey) : null;
+        if (cached != null) {
+            log.trace("Rendered model found in cache for {}", cacheKey);
+            return (RenderedModel) cached.get();
+        }
+
+        Object model = loader.load();
+        if (model == null) {
+            return null;
+        }
+        // model is not complete if the time budget of the request ran out while it was expanded
+        ExpansionDeadline deadline = ExpansionDeadline.current();
+        boolean cacheable = enabled && (deadline == null || !deadline.isPartial());
+        try {
+            // only cached models are compressed, the others are sent once
+            RenderedModel rendered = new RenderedModel(renderer.render(model), cacheable && compression);
+            if (cacheable) {
+                cache.put(cacheKey, rendered);
+            } else if (enabled) {
+                log.debug("Model for {} is partial, it is not cached", cacheKey);
+            }
+            return rendered;
+        } catch (IOException e) {
+            throw new ContentProviderException("Couldn't serialize model for " + cacheKey, e);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.sdl.dxa.modelservice.service.processing.conversion;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sdl.dxa.api.datamodel.model.BinaryContentData;
 import com.sdl.dxa.api.datamodel.model.ComponentTemplateData;
@@ -55,6 +56,7 @@ import org.springframework.beans.factory.annotation.Qualifier;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
@@ -463,9 +465,9 @@ public class ToR2ConverterImpl implements ToR2Converter {
             String content = contentService.loadPageContent(pageRequest.toBuilder().path(includeUrl).build());
             DataModelType publishedModelType = getModelType(content);
             if (publishedModelType == DataModelType.DD4T) {
-                return _convertDD4TPageToRegion(objectMapper.readTree(content), pageRequest);
+                return _convertDD4TPageToRegion(_readIncludeHeader(content, "Id", "Title"), pageRequest);
             } else if (publishedModelType == DataModelType.R2) {
-                return _convertR2PageToRegion(objectMapper.readTree(content), pageRequest);
+                return _convertR2PageToRegion(_readIncludeHeader(content, "Id", "Title", "UrlPath"), pageRequest);
             }
 
             throw new ContentProviderException("Content is published of an unexpected content type, " +
@@ -475,19 +477,44 @@ public class ToR2ConverterImpl implements ToR2Converter {
         }
     }
 
-    private RegionModelData _convertR2PageToRegion(JsonNode tree, PageRequestDto pageRequest) {
-        String title = tree.get("Title").asText();
+    /**
+     * Reads only the given top-level fields of an include page with a streaming parser, stops when all of them are found.
+     * Nested objects are skipped without being read into a tree.
+     */
+    private Map<String, String> _readIncludeHeader(String content, String... fields) throws IOException {
+        Map<String, String> header = new HashMap<>(fields.length * 2);
+        List<String> wanted = Arrays.asList(fields);
+        try (JsonParser parser = objectMapper.getFactory().createParser(content)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return header;
+            }
+            while (header.size() < fields.length && parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                // null is the same as a missing field, so defaults of missing fields apply to it
+                if (value.isScalarValue() && value != JsonToken.VALUE_NULL && wanted.contains(field)) {
+                    header.put(field, parser.getValueAsString());
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return header;
+    }
+
+    private RegionModelData _convertR2PageToRegion(Map<String, String> header, PageRequestDto pageRequest) {
+        String title = header.get("Title");
 
         return _createPageRegionData(
-                tree.get("Id").asText(),
+                header.get("Id"),
                 title,
-                tree.get("UrlPath").asText(""),
+                header.getOrDefault("UrlPath", ""),
                 pageRequest);
     }
 
-    private RegionModelData _convertDD4TPageToRegion(JsonNode tree, PageRequestDto pageRequest) {
-        String id = tree.get("Id").asText();
-        String name = tree.get("Title").asText();
+    private RegionModelData _convertDD4TPageToRegion(Map<String, String> header, PageRequestDto pageRequest) {
+        String id = header.get("Id");
+        String name = header.get("Title");
 
         PageMeta pageMeta = metadataService.getPageMeta(pageRequest.getPublicationId(),
                 TcmUtils.buildPageTcmUri(TcmUtils.getNamespace(id), pageRequest.getPublicationId(), String.valueOf(TcmUtils.getItemId(id))));
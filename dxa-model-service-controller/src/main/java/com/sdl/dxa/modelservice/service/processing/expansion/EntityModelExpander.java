@@ -10,6 +10,9 @@ import com.sdl.dxa.api.datamodel.processing.DataModelDeepFirstSearcher;
 import com.sdl.dxa.common.dto.EntityRequestDto;
 import com.sdl.dxa.common.dto.PageRequestDto;
 import com.sdl.dxa.modelservice.service.ConfigService;
+import com.sdl.dxa.modelservice.service.caching.FailuresCache;
+import com.sdl.dxa.modelservice.service.caching.KeywordCache;
+import com.sdl.dxa.tridion.linking.ParsedRichTextFragment;
 import com.sdl.dxa.tridion.linking.RichTextLinkResolver;
 import com.sdl.dxa.tridion.linking.api.BatchLinkResolver;
 import com.sdl.dxa.tridion.linking.api.descriptors.SingleLinkDescriptor;
@@ -50,6 +53,10 @@ public class EntityModelExpander extends DataModelDeepFirstSearcher {
 
     private boolean _resolveLinks;
 
+    private FailuresCache failuresCache;
+
+    private KeywordCache keywordCache;
+
     public EntityModelExpander(EntityRequestDto request,
                                RichTextLinkResolver richTextLinkResolver,
                                ConfigService configService,
@@ -63,6 +70,24 @@ public class EntityModelExpander extends DataModelDeepFirstSearcher {
 
     }
 
+    /**
+     * Sets the cache to remember keywords which cannot be found, so they are not requested again for a while.
+     *
+     * @param failuresCache cache of failed lookups, or {@code null} to always request keywords
+     */
+    public void setFailuresCache(@Nullable FailuresCache failuresCache) {
+        this.failuresCache = failuresCache;
+    }
+
+    /**
+     * Sets the cache to load keywords from, keywords which cannot be found are then remembered by the keyword cache.
+     *
+     * @param keywordCache cache of keywords, or {@code null} to always request keywords
+     */
+    public void setKeywordCache(@Nullable KeywordCache keywordCache) {
+        this.keywordCache = keywordCache;
+    }
+
     /**
      * Expands an entity data model.
      *
@@ -112,7 +137,7 @@ public class EntityModelExpander extends DataModelDeepFirstSearcher {
         int publicationId = entityRequest.getPublicationId();
         String keywordURI = TcmUtils.buildKeywordTcmUri(String.valueOf(publicationId), keywordModel.getId());
         log.trace("Found keyword to expand, uri = '{}'", keywordURI);
-        Keyword keyword = new TaxonomyFactory().getTaxonomyKeyword(keywordURI);
+        Keyword keyword = _loadKeyword(keywordURI);
 
         if (keyword != null) {
             keywordModel.setDescription(keyword.getKeywordDescription())
@@ -127,6 +152,21 @@ public class EntityModelExpander extends DataModelDeepFirstSearcher {
         }
     }
 
+    @Nullable
+    private Keyword _loadKeyword(String keywordURI) {
+        if (keywordCache != null) {
+            return keywordCache.getKeyword(keywordURI);
+        }
+        if (failuresCache != null && failuresCache.isFailed(FailuresCache.Type.KEYWORD, keywordURI)) {
+            return null;
+        }
+        Keyword keyword = new TaxonomyFactory().getTaxonomyKeyword(keywordURI);
+        if (keyword == null && failuresCache != null) {
+            failuresCache.recordFailure(FailuresCache.Type.KEYWORD, keywordURI);
+        }
+        return keyword;
+    }
+
     @Override
     protected void processRichTextData(RichTextData richTextData) {
 
@@ -137,18 +177,22 @@ public class EntityModelExpander extends DataModelDeepFirstSearcher {
             log.debug("Processing {} fragments.", fragments.size());
 
             List<String> allLinks = new ArrayList<>();
+            List<Object> parsedFragments = new ArrayList<>(fragments.size());
             Set<String> notResolvedLinks = new HashSet<>();
             for (Object fragment : fragments) {
                 if (fragment instanceof String) {
 
-                    String fragmentString = (String) fragment;
-                    allLinks.addAll(richTextLinkResolver.retrieveAllLinksFromFragment(fragmentString));
+                    ParsedRichTextFragment parsedFragment = richTextLinkResolver.parseFragment((String) fragment);
+                    allLinks.addAll(parsedFragment.getLinks());
+                    parsedFragments.add(parsedFragment);
+                } else {
+                    parsedFragments.add(fragment);
                 }
             }
             this.batchLinkResolver.dispatchMultipleLinksResolution(
                     new RichTextLinkDescriptor(
                             entityRequest.getPublicationId(), this.entityRequest.getContextId(),
-                            allLinks, new FragmentListProcessor(richTextData, this.richTextLinkResolver)
+                            allLinks, new FragmentListProcessor(richTextData, parsedFragments, this.richTextLinkResolver)
                     ),
                     notResolvedLinks);
         } else {
@@ -0,0 +1,99 @@
+package com.sdl.dxa.modelservice.service.processing.expansion;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Time budget of a single page request. Once it runs out, expanders skip the remaining dynamic entities and keywords
+ * the same way as missing ones, and the deadline remembers that the model is {@link #isPartial() partial},
+ * so it is not cached as complete.
+ * <p>The deadline of the current request is kept per thread, it is {@link #start(long) started} and
+ * {@link #clear() cleared} by the controller handling the request. Tasks of the request running on other threads
+ * get it {@link #withDeadline(ExpansionDeadline, Callable) explicitly}.</p>
+ */
+public class ExpansionDeadline {
+
+    private static final ThreadLocal<ExpansionDeadline> CURRENT = new ThreadLocal<>();
+
+    private final long deadlineNanos;
+
+    private final AtomicBoolean partial = new AtomicBoolean();
+
+    ExpansionDeadline(long timeoutMillis) {
+        this.deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    }
+
+    /**
+     * Starts the deadline of the current request.
+     *
+     * @param timeoutMillis time budget of the request, milliseconds
+     * @return started deadline
+     */
+    public static ExpansionDeadline start(long timeoutMillis) {
+        ExpansionDeadline deadline = new ExpansionDeadline(timeoutMillis);
+        CURRENT.set(deadline);
+        return deadline;
+    }
+
+    /**
+     * Returns the deadline of the current request.
+     *
+     * @return deadline or {@code null} if the request has no time budget
+     */
+    @Nullable
+    public static ExpansionDeadline current() {
+        return CURRENT.get();
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Wraps a task of the request which runs on another thread, so the deadline of the request is the current one
+     * while the task runs. The deadline the thread had before is restored after the task.
+     *
+     * @param deadline deadline of the request, or {@code null} if the request has no time budget
+     * @param task     task to run with the deadline
+     * @param <T>      type of the task result
+     * @return task running with the deadline
+     */
+    public static <T> Callable<T> withDeadline(@Nullable ExpansionDeadline deadline, Callable<T> task) {
+        return () -> {
+            ExpansionDeadline previous = CURRENT.get();
+            _setCurrent(deadline);
+            try {
+                return task.call();
+            } finally {
+                _setCurrent(previous);
+            }
+        };
+    }
+
+    public boolean isExpired() {
+        return remainingMillis() <= 0;
+    }
+
+    public long remainingMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+    }
+
+    public void markPartial() {
+        partial.set(true);
+    }
+
+    public boolean isPartial() {
+        return partial.get();
+    }
+
+    private static void _setCurrent(@Nullable ExpansionDeadline deadline) {
+        if (deadline == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(deadline);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.sdl.dxa.modelservice.service.processing.expansion;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 import com.sdl.dxa.api.datamodel.model.ContentModelData;
 import com.sdl.dxa.api.datamodel.model.EntityModelData;
 import com.sdl.dxa.api.datamodel.model.KeywordModelData;
@@ -12,6 +14,10 @@ import com.sdl.dxa.common.dto.PageRequestDto;
 import com.sdl.dxa.modelservice.service.ConfigService;
 import com.sdl.dxa.modelservice.service.EntityModelService;
 import com.sdl.dxa.modelservice.service.EntityModelServiceSuppressLinks;
+import com.sdl.dxa.modelservice.service.caching.EntityCache;
+import com.sdl.dxa.modelservice.service.caching.FailuresCache;
+import com.sdl.dxa.modelservice.service.caching.KeywordCache;
+import com.sdl.dxa.tridion.linking.ParsedRichTextFragment;
 import com.sdl.dxa.tridion.linking.RichTextLinkResolver;
 import com.sdl.dxa.tridion.linking.api.BatchLinkResolver;
 import com.sdl.dxa.tridion.linking.api.descriptors.SingleLinkDescriptor;
@@ -32,11 +38,19 @@ import org.apache.commons.lang3.math.NumberUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import static com.sdl.web.util.ContentServiceQueryConstants.LINK_TYPE_BINARY;
 import static com.sdl.web.util.ContentServiceQueryConstants.LINK_TYPE_COMPONENT;
@@ -59,18 +73,88 @@ public class PageModelExpander extends DataModelDeepFirstSearcher {
 
     private Integer pageId;
 
+    private EntityCache<String, EntityModelData> entityCache;
+
+    private ExecutorService entityExpansionExecutor;
+
+    private Map<String, Future<EntityModelData>> prefetchedEntities = new HashMap<>();
+
+    private FailuresCache failuresCache;
+
+    private KeywordCache keywordCache;
+
+    private ExpansionDeadline deadline;
+
+    private ObjectMapper objectMapper;
+
     public PageModelExpander(PageRequestDto pageRequest,
                              EntityModelService entityModelService,
                              RichTextLinkResolver richTextLinkResolver,
                              ConfigService configService,
                              BatchLinkResolver batchLinkResolver,
                              Integer pageId) {
+        this(pageRequest, entityModelService, richTextLinkResolver, configService, batchLinkResolver, pageId, null);
+    }
+
+    /**
+     * Creates an expander which loads dynamic entities of a page concurrently.
+     *
+     * @param entityExpansionExecutor executor to load dynamic entities on, or {@code null} to load them one by one
+     *                                while traversing the page
+     */
+    public PageModelExpander(PageRequestDto pageRequest,
+                             EntityModelService entityModelService,
+                             RichTextLinkResolver richTextLinkResolver,
+                             ConfigService configService,
+                             BatchLinkResolver batchLinkResolver,
+                             Integer pageId,
+                             @Nullable ExecutorService entityExpansionExecutor) {
         this.pageRequest = pageRequest;
         this.entityModelService = entityModelService;
         this.richTextLinkResolver = richTextLinkResolver;
         this.configService = configService;
         this.batchLinkResolver = batchLinkResolver;
         this.pageId = pageId;
+        this.entityCache = new EntityCache<>(configService.getDefaults().getPageEntityCacheSize());
+        this.entityExpansionExecutor = entityExpansionExecutor;
+        this.objectMapper = configService.getDefaults().getObjectMapper();
+    }
+
+    /**
+     * Sets the object mapper to copy entities with, every placeholder of an entity gets its own copy of it.
+     *
+     * @param objectMapper mapper of R2 data model
+     */
+    public void setObjectMapper(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Sets the cache to remember keywords which cannot be found, so they are not requested again for a while.
+     *
+     * @param failuresCache cache of failed lookups, or {@code null} to always request keywords
+     */
+    public void setFailuresCache(@Nullable FailuresCache failuresCache) {
+        this.failuresCache = failuresCache;
+    }
+
+    /**
+     * Sets the cache to load keywords from, keywords which cannot be found are then remembered by the keyword cache.
+     *
+     * @param keywordCache cache of keywords, or {@code null} to always request keywords
+     */
+    public void setKeywordCache(@Nullable KeywordCache keywordCache) {
+        this.keywordCache = keywordCache;
+    }
+
+    /**
+     * Sets the time budget of the expansion. Dynamic entities and keywords left when it runs out are not expanded,
+     * they are handled as missing ones and the deadline is marked partial.
+     *
+     * @param deadline deadline of the request, or {@code null} to expand the whole page
+     */
+    public void setDeadline(@Nullable ExpansionDeadline deadline) {
+        this.deadline = deadline;
     }
 
     /**
@@ -82,13 +166,31 @@ public class PageModelExpander extends DataModelDeepFirstSearcher {
         long startTime = System.currentTimeMillis();
         log.info("Expansion of the page with id {} has started!", page.getId());
 
-        traverseObject(page);
+        try {
+            _prefetchEntities(page);
+            _preloadKeywords(page);
+            traverseObject(page);
+        } finally {
+            // entities that were not reached by the traversal are not needed anymore
+            prefetchedEntities.values().forEach(future -> future.cancel(false));
+            prefetchedEntities.clear();
+        }
 
         // Resolve all links and update the model after page has been traversed and expanded
         this.batchLinkResolver.resolveAndFlush(new HashSet<>());
 
         log.info("Expansion of the page with id {} has taken {} ms.", page.getId(),
                 System.currentTimeMillis() - startTime);
+        log.debug("Entities of the page with id {} loaded via {}", page.getId(), entityCache);
+    }
+
+    /**
+     * Returns the memo of entities loaded during this page expansion, e.g. to check its hits and misses.
+     *
+     * @return entities memo of this expansion
+     */
+    public EntityCache<String, EntityModelData> getEntityCache() {
+        return entityCache;
     }
 
     @Override
@@ -108,6 +210,10 @@ public class PageModelExpander extends DataModelDeepFirstSearcher {
         int pageId = NumberUtils.toInt(pageModelData.getId(), -1);
 
         Map<String, String> meta = pageModelData.getMeta();
+        if (meta == null) {
+            // meta may be left out by the projection of the page
+            return;
+        }
         Set<String> notResolvedLinks = new HashSet<>();
         for (Map.Entry<String, String> entry : meta.entrySet()) {
             String entryValue = entry.getValue();
@@ -119,16 +225,16 @@ public class PageModelExpander extends DataModelDeepFirstSearcher {
                         entry.getKey()), LINK_TYPE_BINARY);
                 this.batchLinkResolver.dispatchLinkResolution(ld);
             } else {
-                List<String> links = this.richTextLinkResolver.retrieveAllLinksFromFragment(entryValue);
+                ParsedRichTextFragment parsedFragment = this.richTextLinkResolver.parseFragment(entryValue);
                 this.batchLinkResolver.dispatchMultipleLinksResolution(
                         new RichTextLinkDescriptor(
                                 pageRequest.getPublicationId(),
                                 pageId,
-                                links,
+                                parsedFragment.getLinks(),
                                 new FragmentLinkListProcessor(
                                         meta,
                                         entry.getKey(),
-                                        entry.getValue(),
+                                        parsedFragment,
                                         this.richTextLinkResolver
                                 )
                         ),
@@ -136,6 +242,9 @@ public class PageModelExpander extends DataModelDeepFirstSearcher {
 
             }
         }
+
+        // page meta is known before the traversal goes deeper, so its links may be resolved meanwhile
+        this.batchLinkResolver.resolveInBackground();
     }
 
     @Override
@@ -169,11 +278,16 @@ public class PageModelExpander extends DataModelDeepFirstSearcher {
         if (!_isKeywordToExpand(keywordModel)) {
             return;
         }
+        if (_isDeadlinePassed()) {
+            _suppressIfNeeded("Deadline passed, keyword " + keywordModel.getId() + " in publication " +
+                    pageRequest.getPublicationId() + " is not expanded", configService.getErrors().isMissingKeywordSuppress());
+            return;
+        }
 
         String keywordURI =
                 TcmUtils.buildKeywordTcmUri(String.valueOf(pageRequest.getPublicationId()), keywordModel.getId());
         log.trace("Found keyword to expand, uri = '{}'", keywordURI);
-        Keyword keyword = new TaxonomyFactory().getTaxonomyKeyword(keywordURI);
+        Keyword keyword = _loadKeyword(keywordURI);
 
         if (keyword != null) {
             keywordModel.setDescription(keyword.getKeywordDescription()).setKey(keyword.getKeywordKey())
@@ -198,12 +312,15 @@ public class PageModelExpander extends DataModelDeepFirstSearcher {
         richTextData.setFragments(fragments);
 
         List<String> links = new ArrayList<>();
+        List<Object> parsedFragments = new ArrayList<>(fragments.size());
         Set<String> notResolvedLinks = new HashSet<>();
         for (Object fragment : fragments) {
             if (fragment instanceof String) {
-                String fragmentString = (String) fragment;
-                links.addAll(this.richTextLinkResolver
-                        .retrieveAllLinksFromFragment(fragmentString));
+                ParsedRichTextFragment parsedFragment = this.richTextLinkResolver.parseFragment((String) fragment);
+                links.addAll(parsedFragment.getLinks());
+                parsedFragments.add(parsedFragment);
+            } else {
+                parsedFragments.add(fragment);
             }
         }
         this.batchLinkResolver.dispatchMultipleLinksResolution(
@@ -211,12 +328,27 @@ public class PageModelExpander extends DataModelDeepFirstSearcher {
                         pageRequest.getPublicationId(),
                         this.pageId,
                         links,
-                        new FragmentListProcessor(richTextData,
+                        new FragmentListProcessor(richTextData, parsedFragments,
                                 this.richTextLinkResolver)), notResolvedLinks);
 
         log.debug("Page Model RTF resolving took: {} ms.", ((System.currentTimeMillis() - start)));
     }
 
+    @Nullable
+    private Keyword _loadKeyword(String keywordURI) {
+        if (keywordCache != null) {
+            return keywordCache.getKeyword(keywordURI);
+        }
+        if (failuresCache != null && failuresCache.isFailed(FailuresCache.Type.KEYWORD, keywordURI)) {
+            return null;
+        }
+        Keyword keyword = new TaxonomyFactory().getTaxonomyKeyword(keywordURI);
+        if (keyword == null && failuresCache != null) {
+            failuresCache.recordFailure(FailuresCache.Type.KEYWORD, keywordURI);
+        }
+        return keyword;
+    }
+
     @NotNull
     private ContentModelData _getMetadata(Keyword keyword, PageRequestDto pageRequest) {
         ContentModelData metadata = new ContentModelData();
@@ -272,31 +404,127 @@ public class PageModelExpander extends DataModelDeepFirstSearcher {
                 ((EntityModelData) value).getId().matches("\\d+-\\d+");
     }
 
+    /**
+     * Collects all dynamic entities of the page and starts loading them on {@link #entityExpansionExecutor}.
+     * The traversal then only waits for the already loading entities, so depth limits and error handling stay the same.
+     */
+    private void _prefetchEntities(PageModelData page) {
+        if (entityExpansionExecutor == null || page == null) {
+            return;
+        }
+
+        Set<String> entityIds = new EntitiesCollector().collect(page);
+        if (entityIds.size() < 2) {
+            log.trace("Nothing to load concurrently for page {}", page.getId());
+            return;
+        }
+
+        log.debug("Loading {} dynamic entities of the page with id {} concurrently", entityIds.size(), page.getId());
+        for (String entityId : entityIds) {
+            EntityRequestDto entityRequest = _getEntityRequest(entityId);
+            prefetchedEntities.put(entityId, entityExpansionExecutor.submit(() -> _loadEntity(entityRequest)));
+        }
+    }
+
+    /**
+     * Loads all keywords of the page which are not cached yet at once, so the traversal takes them from cache.
+     */
+    private void _preloadKeywords(PageModelData page) {
+        if (keywordCache == null || !keywordCache.isEnabled() || page == null) {
+            return;
+        }
+
+        Set<String> keywordUris = new KeywordsCollector().collect(page);
+        if (!keywordUris.isEmpty()) {
+            log.debug("Preloading {} keywords of the page with id {}", keywordUris.size(), page.getId());
+            keywordCache.preload(keywordUris, entityExpansionExecutor, deadline);
+        }
+    }
+
+    private EntityRequestDto _getEntityRequest(String entityId) {
+        return EntityRequestDto.builder(pageRequest.getPublicationId(), entityId, this.pageId).build();
+    }
+
+    private EntityModelData _loadEntity(EntityRequestDto entityRequest) throws ContentProviderException {
+        if (EntityModelServiceSuppressLinks.class.isAssignableFrom(entityModelService.getClass())) {
+            return ((EntityModelServiceSuppressLinks) entityModelService).loadEntity(entityRequest, false);
+        }
+        return entityModelService.loadEntity(entityRequest);
+    }
+
+    private EntityModelData _awaitEntity(Future<EntityModelData> future, EntityRequestDto entityRequest) throws ContentProviderException {
+        try {
+            return deadline == null ? future.get() : future.get(Math.max(deadline.remainingMillis(), 0), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // the entity is still loaded in background, so it's cached for the next requests
+            deadline.markPartial();
+            throw new ContentProviderException("Deadline passed while loading entity for request " + entityRequest, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ContentProviderException("Interrupted while loading entity for request " + entityRequest, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ContentProviderException) {
+                throw (ContentProviderException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new ContentProviderException("Couldn't load entity for request " + entityRequest, cause);
+        }
+    }
+
     private void _expandEntity(EntityModelData toExpand, PageRequestDto pageRequest) {
 
-        EntityRequestDto entityRequest = EntityRequestDto.builder(
-                pageRequest.getPublicationId(), toExpand.getId(), this.pageId).build();
+        EntityRequestDto entityRequest = _getEntityRequest(toExpand.getId());
 
         log.trace("Found entity to expand {}, request {}", toExpand.getId(), entityRequest);
         try {
-            long startTime = System.currentTimeMillis();
-            log.debug("Loading of the entity with id {} has started.", entityRequest.getComponentId());
-
-            EntityModelData e;
-            if (EntityModelServiceSuppressLinks.class.isAssignableFrom(entityModelService.getClass())) {
-                e = ((EntityModelServiceSuppressLinks) entityModelService).loadEntity(entityRequest, false);
+            EntityModelData e = entityCache.get(toExpand.getId());
+            if (e == null && _isDeadlinePassed()) {
+                throw new ContentProviderException("Deadline passed, entity is not loaded for request " + entityRequest);
+            }
+            if (e == null) {
+                long startTime = System.currentTimeMillis();
+                log.debug("Loading of the entity with id {} has started.", entityRequest.getComponentId());
+
+                Future<EntityModelData> prefetched = prefetchedEntities.remove(toExpand.getId());
+                e = prefetched == null ? _loadEntity(entityRequest) : _awaitEntity(prefetched, entityRequest);
+                entityCache.put(toExpand.getId(), e);
+                log.debug("Loading of the entity with id {} has taken {} ms", entityRequest.getComponentId(),
+                        System.currentTimeMillis() - startTime);
             } else {
-                e = entityModelService.loadEntity(entityRequest);
+                log.debug("Entity with id {} is already loaded for this page, reusing it", toExpand.getId());
             }
-            log.debug("Loading of the entity with id {} has taken {} ms", entityRequest.getComponentId(),
-                    System.currentTimeMillis() - startTime);
-            toExpand.copyFrom(e);
+            // the memoized entity stays as loaded, placeholders are expanded and their links resolved separately
+            toExpand.copyFrom(_copyEntityModel(e));
         } catch (ContentProviderException e) {
             _suppressIfNeeded("Cannot expand entity " + toExpand + " for page " + pageRequest,
                     configService.getErrors().isMissingEntitySuppress(), e);
         }
     }
 
+    private EntityModelData _copyEntityModel(EntityModelData entityModel) throws ContentProviderException {
+        try {
+            TokenBuffer buffer = new TokenBuffer(objectMapper, false);
+            objectMapper.writeValue(buffer, entityModel);
+            return objectMapper.readValue(buffer.asParser(), EntityModelData.class);
+        } catch (IOException e) {
+            throw new ContentProviderException("Couldn't copy entity model " + entityModel.getId(), e);
+        }
+    }
+
+    private boolean _isDeadlinePassed() {
+        if (deadline != null && deadline.isExpired()) {
+            deadline.markPartial();
+            return true;
+        }
+        return false;
+    }
+
     private void _suppressIfNeeded(String message, boolean suppressingFlag) {
         log.warn(message);
         if (!suppressingFlag) {
@@ -310,4 +538,80 @@ public class PageModelExpander extends DataModelDeepFirstSearcher {
             throw new DataModelExpansionException(message, e);
         }
     }
+
+    /**
+     * Traverses the model as deep as the expansion does, so nothing beyond the expansion depth limit is collected.
+     */
+    private abstract class DepthLimitedCollector extends DataModelDeepFirstSearcher {
+
+        @Override
+        protected boolean goingDeepIsAllowed() {
+            return PageModelExpander.this.goingDeepIsAllowed();
+        }
+
+        @Override
+        protected void goLevelUp() {
+            PageModelExpander.this.goLevelUp();
+        }
+    }
+
+    /**
+     * Collects IDs of dynamic entities to expand without touching the model.
+     */
+    private class EntitiesCollector extends DepthLimitedCollector {
+
+        private final Set<String> entityIds = new LinkedHashSet<>();
+
+        Set<String> collect(PageModelData page) {
+            traverseObject(page);
+            return entityIds;
+        }
+
+        @Override
+        protected void processEntityModel(EntityModelData entityModelData) {
+            if (_isEntityToExpand(entityModelData)) {
+                entityIds.add(entityModelData.getId());
+            }
+        }
+
+        @Override
+        protected void processKeywordModel(KeywordModelData keywordModel) {
+            // nothing to collect
+        }
+
+        @Override
+        protected void processRichTextData(RichTextData richTextData) {
+            // nothing to collect
+        }
+    }
+
+    /**
+     * Collects URIs of keywords to expand without touching the model.
+     */
+    private class KeywordsCollector extends DepthLimitedCollector {
+
+        private final Set<String> keywordUris = new LinkedHashSet<>();
+
+        Set<String> collect(PageModelData page) {
+            traverseObject(page);
+            return keywordUris;
+        }
+
+        @Override
+        protected void processEntityModel(EntityModelData entityModelData) {
+            // nothing to collect
+        }
+
+        @Override
+        protected void processKeywordModel(KeywordModelData keywordModel) {
+            if (_isKeywordToExpand(keywordModel)) {
+                keywordUris.add(TcmUtils.buildKeywordTcmUri(String.valueOf(pageRequest.getPublicationId()), keywordModel.getId()));
+            }
+        }
+
+        @Override
+        protected void processRichTextData(RichTextData richTextData) {
+            // nothing to collect
+        }
+    }
 }
@@ -0,0 +1,106 @@
+package com.sdl.dxa.modelservice.spring;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Converter of models to binary JSON format <a href="https://github.com/FasterXML/smile-format-specification">Smile</a>
+ * requested with {@code Accept: application/x-jackson-smile}. Models are serialized with the given JSON object mapper
+ * into a Smile generator, so field names and type information are exactly the same as in JSON.
+ */
+public class SmileHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    private final ObjectMapper objectMapper;
+
+    private final SmileFactory smileFactory;
+
+    public SmileHttpMessageConverter(ObjectMapper objectMapper) {
+        super(APPLICATION_SMILE);
+        this.objectMapper = objectMapper;
+        this.smileFactory = new SmileFactory();
+        // response stream is closed by the container
+        this.smileFactory.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    /**
+     * Checks whether the client prefers Smile to JSON.
+     *
+     * @param accept value of {@code Accept} header of the request
+     * @return whether Smile should be sent
+     */
+    public static boolean isPreferred(@Nullable String accept) {
+        if (accept == null) {
+            return false;
+        }
+
+        List<MediaType> mediaTypes = MediaType.parseMediaTypes(accept);
+        MediaType.sortBySpecificityAndQuality(mediaTypes);
+        for (MediaType mediaType : mediaTypes) {
+            if (APPLICATION_SMILE.equalsTypeAndSubtype(mediaType)) {
+                return mediaType.getQualityValue() > 0;
+            }
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Serializes the model to Smile.
+     *
+     * @param value model to serialize
+     * @return model in Smile format
+     * @throws IOException if the model cannot be serialized
+     */
+    public byte[] writeValueAsBytes(Object value) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        _write(value, out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Supports models only, raw content and strings are written as is by their own converters.
+     */
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return !byte[].class.equals(clazz) && !CharSequence.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        try (JsonParser parser = smileFactory.createParser(inputMessage.getBody())) {
+            return objectMapper.readValue(parser, clazz);
+        } catch (IOException e) {
+            throw new HttpMessageNotReadableException("Couldn't read Smile: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    protected void writeInternal(Object value, HttpOutputMessage outputMessage) throws IOException {
+        _write(value, outputMessage.getBody());
+    }
+
+    private void _write(Object value, OutputStream out) throws IOException {
+        try (JsonGenerator generator = smileFactory.createGenerator(out)) {
+            objectMapper.writeValue(generator, value);
+        }
+    }
+}
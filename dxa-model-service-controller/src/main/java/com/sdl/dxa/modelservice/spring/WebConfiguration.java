@@ -1,14 +1,30 @@
 package com.sdl.dxa.modelservice.spring;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.ContentNegotiationConfigurer;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
 
+import java.util.List;
+
 @Configuration
 public class WebConfiguration extends WebMvcConfigurerAdapter {
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Override
     public void configureContentNegotiation(ContentNegotiationConfigurer configurer) {
         configurer.favorPathExtension(false);
     }
+
+    /**
+     * Adds Smile converter after all the default ones, so it's only chosen if a client asks for Smile explicitly.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new SmileHttpMessageConverter(objectMapper));
+    }
 }
@@ -24,4 +24,12 @@ public interface TridionQueryLoader {
      */
 
     String[] constructQueryAndSetResultFilter(Criteria criteria, PageRequestDto pageRequest) throws StorageException;
+
+    /**
+     * Constructs and executes a Query object to get all items matching the criteria, e.g. all pages of a publication.
+     *
+     * @param criteria the items criteria
+     * @return TCM URIs of the found items
+     */
+    String[] findItems(Criteria criteria) throws StorageException;
 }
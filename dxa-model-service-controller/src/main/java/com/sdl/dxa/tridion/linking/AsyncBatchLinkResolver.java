@@ -0,0 +1,266 @@
+package com.sdl.dxa.tridion.linking;
+
+import com.sdl.dxa.tridion.linking.api.BatchLinkResolver;
+import com.sdl.dxa.tridion.linking.api.descriptors.MultipleLinksDescriptor;
+import com.sdl.dxa.tridion.linking.api.descriptors.SingleLinkDescriptor;
+import com.sdl.dxa.tridion.linking.api.processors.LinkProcessor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Batch link resolver which resolves links in background while the model is still being traversed.
+ * <p>Dispatched links are collected into a batch of a wrapped resolver. The batch is sent to background
+ * on {@link #resolveInBackground()} or once it has {@code batchSize} links, and the next links go to a new batch.
+ * Resolved links are only applied to the model on {@link #resolveAndFlush(Set)} in the calling thread, so the model
+ * is never changed concurrently with the traversal. {@link #resolveAndFlush(Set)} resolves the last batch and waits
+ * for the ones still in flight.</p>
+ */
+@Slf4j
+public class AsyncBatchLinkResolver implements BatchLinkResolver {
+
+    private final Supplier<BatchLinkResolver> resolverSupplier;
+
+    private final ExecutorService executor;
+
+    private final int batchSize;
+
+    private BatchLinkResolver batch;
+
+    private int batchLinks;
+
+    private final List<Future<?>> batchesInFlight = new ArrayList<>();
+
+    private final List<Runnable> updates = new ArrayList<>();
+
+    /**
+     * @param resolverSupplier supplier of resolvers to resolve batches, a new resolver is taken for every batch
+     * @param executor         executor to resolve batches on
+     * @param batchSize        number of dispatched links to send a batch to background automatically,
+     *                         {@code 0} or less to only do it on {@link #resolveInBackground()}
+     */
+    public AsyncBatchLinkResolver(Supplier<BatchLinkResolver> resolverSupplier, ExecutorService executor, int batchSize) {
+        this.resolverSupplier = resolverSupplier;
+        this.executor = executor;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void dispatchLinkResolution(SingleLinkDescriptor descriptor) {
+        if (descriptor == null) {
+            return;
+        }
+
+        _getBatch().dispatchLinkResolution(new DeferredLinkDescriptor(descriptor));
+        _countLinks(1);
+    }
+
+    @Override
+    public void dispatchMultipleLinksResolution(MultipleLinksDescriptor descriptor, Set<String> notResolvedLinks) {
+        if (descriptor == null) {
+            return;
+        }
+
+        _getBatch().dispatchMultipleLinksResolution(new DeferredMultipleLinksDescriptor(descriptor), notResolvedLinks);
+        _countLinks(descriptor.getLinks().size());
+    }
+
+    @Override
+    public void resolveInBackground() {
+        if (batch == null) {
+            return;
+        }
+
+        BatchLinkResolver resolver = batch;
+        batch = null;
+        batchLinks = 0;
+        log.debug("Resolving batch {} of links in background", batchesInFlight.size() + 1);
+        batchesInFlight.add(executor.submit(() -> resolver.resolveAndFlush(new HashSet<>())));
+    }
+
+    @Override
+    public void resolveAndFlush(Set<String> notResolvedLinks) {
+        try {
+            if (batch != null) {
+                batch.resolveAndFlush(notResolvedLinks);
+                batch = null;
+                batchLinks = 0;
+            }
+
+            for (Future<?> future : batchesInFlight) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while resolving links", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Couldn't resolve links", e.getCause());
+        } finally {
+            batchesInFlight.forEach(future -> future.cancel(false));
+            batchesInFlight.clear();
+        }
+
+        // links are resolved, now they can be applied to the model in the original order
+        List<Runnable> toApply;
+        synchronized (updates) {
+            toApply = new ArrayList<>(updates);
+            updates.clear();
+        }
+        toApply.forEach(Runnable::run);
+    }
+
+    private BatchLinkResolver _getBatch() {
+        if (batch == null) {
+            batch = resolverSupplier.get();
+        }
+        return batch;
+    }
+
+    private void _countLinks(int links) {
+        batchLinks += links;
+        if (batchSize > 0 && batchLinks >= batchSize) {
+            resolveInBackground();
+        }
+    }
+
+    private void _deferUpdate(Runnable update) {
+        synchronized (updates) {
+            updates.add(update);
+        }
+    }
+
+    /**
+     * Descriptor which defers the update of the model until links are flushed in the calling thread.
+     */
+    private class DeferredLinkDescriptor implements SingleLinkDescriptor {
+
+        private final SingleLinkDescriptor descriptor;
+
+        DeferredLinkDescriptor(SingleLinkDescriptor descriptor) {
+            this.descriptor = descriptor;
+        }
+
+        @Override
+        public void update() {
+            _deferUpdate(descriptor::update);
+        }
+
+        @Override
+        public void subscribe(String subscriptionId) {
+            descriptor.subscribe(subscriptionId);
+        }
+
+        @Override
+        public boolean canBeResolved() {
+            return descriptor.canBeResolved();
+        }
+
+        @Override
+        public String getLinkId() {
+            return descriptor.getLinkId();
+        }
+
+        @Override
+        public Integer getComponentId() {
+            return descriptor.getComponentId();
+        }
+
+        @Override
+        public Integer getPageId() {
+            return descriptor.getPageId();
+        }
+
+        @Override
+        public LinkProcessor getLinkProcessor() {
+            return descriptor.getLinkProcessor();
+        }
+
+        @Override
+        public Integer getTemplateId() {
+            return descriptor.getTemplateId();
+        }
+
+        @Override
+        public String getSubscription() {
+            return descriptor.getSubscription();
+        }
+
+        @Override
+        public String getType() {
+            return descriptor.getType();
+        }
+
+        @Override
+        public void setType(String type) {
+            descriptor.setType(type);
+        }
+
+        @Override
+        public String getResolvedLink() {
+            return descriptor.getResolvedLink();
+        }
+
+        @Override
+        public void setResolvedLink(String link) {
+            descriptor.setResolvedLink(link);
+        }
+
+        @Override
+        public boolean isResolved() {
+            return descriptor.isResolved();
+        }
+
+        @Override
+        public Integer getPublicationId() {
+            return descriptor.getPublicationId();
+        }
+    }
+
+    /**
+     * Descriptor which defers the update of the model until links are flushed in the calling thread.
+     */
+    private class DeferredMultipleLinksDescriptor implements MultipleLinksDescriptor {
+
+        private final MultipleLinksDescriptor descriptor;
+
+        DeferredMultipleLinksDescriptor(MultipleLinksDescriptor descriptor) {
+            this.descriptor = descriptor;
+        }
+
+        @Override
+        public void update(Set<String> notResolvedLinks) {
+            _deferUpdate(() -> descriptor.update(notResolvedLinks));
+        }
+
+        @Override
+        public Map<String, String> getLinks() {
+            return descriptor.getLinks();
+        }
+
+        @Override
+        public Integer getPageId() {
+            return descriptor.getPageId();
+        }
+
+        @Override
+        public String getType() {
+            return descriptor.getType();
+        }
+
+        @Override
+        public Integer getPublicationId() {
+            return descriptor.getPublicationId();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.sdl.dxa.tridion.linking;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers which items linked as binaries turned out to be plain components, so their links are requested
+ * as component links right away instead of being tried as binary links first.
+ * <p>Hints are learned from resolved links, bounded in size and expire after a configured time to live
+ * to follow republishing of items. A hint which doesn't work anymore should be {@link #forget(Integer, Integer) forgotten}.</p>
+ */
+@Slf4j
+@Component
+public class LinkTypeHints {
+
+    private final boolean enabled;
+
+    private final Cache<String, Boolean> hints;
+
+    @Autowired
+    public LinkTypeHints(@Value("${dxa.web.link-resolver.type-hints-max-size:50000}") long maxSize,
+                         @Value("${dxa.web.link-resolver.type-hints-ttl:30}") long ttlSeconds) {
+        this.enabled = maxSize > 0 && ttlSeconds > 0;
+        this.hints = CacheBuilder.newBuilder()
+                .maximumSize(Math.max(maxSize, 0))
+                .expireAfterWrite(Math.max(ttlSeconds, 0), TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        log.info("Link type hints are {}, max size = {}, ttl = {} seconds", enabled ? "enabled" : "disabled", maxSize, ttlSeconds);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Tells whether the item is known to be a component and not a binary.
+     *
+     * @param publicationId publication of the item
+     * @param componentId   id of the item
+     * @return {@code true} only if the item was resolved as a component link and not as a binary link before
+     */
+    public boolean isComponent(Integer publicationId, Integer componentId) {
+        return enabled && Boolean.FALSE.equals(hints.getIfPresent(_key(publicationId, componentId)));
+    }
+
+    /**
+     * Remembers the type of the item as learned from resolving its link.
+     *
+     * @param publicationId publication of the item
+     * @param componentId   id of the item
+     * @param binary        whether the item was resolved as a binary link
+     */
+    public void remember(Integer publicationId, Integer componentId, boolean binary) {
+        if (enabled) {
+            hints.put(_key(publicationId, componentId), binary);
+        }
+    }
+
+    public void forget(Integer publicationId, Integer componentId) {
+        hints.invalidate(_key(publicationId, componentId));
+    }
+
+    public void clear() {
+        hints.invalidateAll();
+    }
+
+    public long size() {
+        return hints.size();
+    }
+
+    public long getHitCount() {
+        return hints.stats().hitCount();
+    }
+
+    public long getMissCount() {
+        return hints.stats().missCount();
+    }
+
+    private static String _key(Integer publicationId, Integer componentId) {
+        return publicationId + "-" + componentId;
+    }
+}
@@ -0,0 +1,26 @@
+package com.sdl.dxa.tridion.linking;
+
+import java.util.List;
+
+/**
+ * Handle to a rich text fragment already parsed by {@link RichTextLinkResolver#parseFragment(String)}.
+ * <p>Keeps the positions of TCM URIs found in a fragment so that links can be collected for a batch resolution
+ * and later spliced into the fragment with {@link RichTextLinkResolver#processFragment(ParsedRichTextFragment, java.util.Map, java.util.Set)}
+ * without reading the fragment again.</p>
+ */
+public interface ParsedRichTextFragment {
+
+    /**
+     * Returns the fragment as it was passed for parsing.
+     *
+     * @return original fragment
+     */
+    String getFragment();
+
+    /**
+     * Returns all TCM URIs found in {@code href} attributes of the fragment, in order of appearance.
+     *
+     * @return TCM URIs, possibly with duplicates
+     */
+    List<String> getLinks();
+}
@@ -0,0 +1,74 @@
+package com.sdl.dxa.tridion.linking;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache of resolved links shared between requests, so links to the same targets (e.g. navigation) are not
+ * requested again for every page. Bounded in size, entries expire after a configured time to live.
+ * Hits and misses are counted for diagnostics.
+ */
+@Slf4j
+@Component
+public class ResolvedLinkCache {
+
+    private final boolean enabled;
+
+    private final Cache<String, String> cache;
+
+    @Autowired
+    public ResolvedLinkCache(@Value("${dxa.web.link-resolver.cache-max-size:10000}") long maxSize,
+                             @Value("${dxa.web.link-resolver.cache-ttl:30}") long ttlSeconds) {
+        this.enabled = maxSize > 0 && ttlSeconds > 0;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(Math.max(maxSize, 0))
+                .expireAfterWrite(Math.max(ttlSeconds, 0), TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        log.info("Resolved links cache is {}, max size = {}, ttl = {} seconds", enabled ? "enabled" : "disabled", maxSize, ttlSeconds);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns a resolved link if it's cached.
+     *
+     * @param key key of the link, should include everything the resolved link depends on
+     * @return resolved link or {@code null} if it's not in cache
+     */
+    @Nullable
+    public String get(String key) {
+        return enabled ? cache.getIfPresent(key) : null;
+    }
+
+    public void put(String key, String resolvedLink) {
+        if (enabled && resolvedLink != null) {
+            cache.put(key, resolvedLink);
+        }
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    public long getHitCount() {
+        return cache.stats().hitCount();
+    }
+
+    public long getMissCount() {
+        return cache.stats().missCount();
+    }
+}
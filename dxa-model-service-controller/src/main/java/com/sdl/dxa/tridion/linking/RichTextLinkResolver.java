@@ -30,5 +30,25 @@ public interface RichTextLinkResolver {
      */
     String processFragment(@NotNull String fragment, @NotNull Map<String, String> batchOfLinks, @NotNull Set<String> notResolvedBuffer);
 
+    /**
+     * Processes a rich text fragment already parsed by {@link #parseFragment(String)}, so the fragment is not scanned again.
+     * Semantics are the same as of {@link #processFragment(String, Map, Set)}.
+     *
+     * @param fragment          parsed fragment of a rich text to process
+     * @param notResolvedBuffer buffer to put non resolvable links to, make sure it's modifiable
+     * @return modified fragment
+     */
+    String processFragment(@NotNull ParsedRichTextFragment fragment, @NotNull Map<String, String> batchOfLinks, @NotNull Set<String> notResolvedBuffer);
+
+    /**
+     * Parses a rich text fragment once so that its links may be collected with {@link ParsedRichTextFragment#getLinks()}
+     * and then resolved with {@link #processFragment(ParsedRichTextFragment, Map, Set)}.
+     *
+     * @param fragment fragment of a rich text to parse
+     * @return reusable handle to the parsed fragment
+     */
+    @NotNull
+    ParsedRichTextFragment parseFragment(@NotNull String fragment);
+
     List<String> retrieveAllLinksFromFragment(@NotNull String fragmentString);
 }
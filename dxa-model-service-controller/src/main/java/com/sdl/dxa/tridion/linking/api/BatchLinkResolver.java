@@ -16,6 +16,13 @@ public interface BatchLinkResolver {
      */
     void dispatchMultipleLinksResolution(MultipleLinksDescriptor descriptor, Set<String> notResolvedLinks);
 
+    /**
+     * Hints that links dispatched so far may already be resolved in background while the model is still being processed.
+     * Resolved links are still only applied on {@link #resolveAndFlush(Set)}. Does nothing by default.
+     */
+    default void resolveInBackground() {
+    }
+
     /**
      * Method initiates resolution of links that has been dispatched. After resolution has finished it flushes Resolver
      * @param notResolvedLinks
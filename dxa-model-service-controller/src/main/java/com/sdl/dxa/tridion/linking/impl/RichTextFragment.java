@@ -0,0 +1,616 @@
+package com.sdl.dxa.tridion.linking.impl;
+
+import com.sdl.dxa.tridion.linking.ParsedRichTextFragment;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tokenized representation of a rich text fragment.
+ * <p>The fragment is read exactly once. While reading, {@code xlink:}/{@code xmlns} attributes are removed
+ * (or {@code href} is generated from {@code xlink:href}), excessive whitespace is collapsed, and positions of
+ * {@code tcm:} links and anchors pointing to them are recorded. Resolved links are spliced in later
+ * by {@link #resolve(Map, Set)} which also drops {@code <!--CompLink tcm:1-2-->} markers in the same pass.</p>
+ * <p>Output is the same as the one of the former regular expressions chain
+ * ({@code dropXlmns}/{@code generateHref}, start links, end links, whitespace).</p>
+ */
+final class RichTextFragment implements ParsedRichTextFragment {
+
+    private static final String END_LINK = "</a><!--complink";
+
+    private static final String TCM = "tcm:";
+
+    private final String fragment;
+
+    private final String text;
+
+    private final int[] anchors;
+
+    private final int anchorCount;
+
+    private final List<String> links;
+
+    private RichTextFragment(String fragment, String text, int[] anchors, int anchorCount, List<String> links) {
+        this.fragment = fragment;
+        this.text = text;
+        this.anchors = anchors;
+        this.anchorCount = anchorCount;
+        this.links = links;
+    }
+
+    /**
+     * Tokenizes a rich text fragment.
+     *
+     * @param fragment     fragment of a rich text
+     * @param removeXmlns  whether to remove {@code xlink:}/{@code xmlns} attributes, otherwise {@code href} is generated
+     *                     out of {@code xlink:href} and {@code xmlns:href}
+     * @return tokenized fragment
+     */
+    static RichTextFragment parse(String fragment, boolean removeXmlns) {
+        return new Tokenizer(fragment, removeXmlns).tokenize();
+    }
+
+    /**
+     * Wraps a rich text fragment which should not be touched, no links are reported for it.
+     *
+     * @param fragment fragment of a rich text
+     * @return fragment as is
+     */
+    static RichTextFragment unprocessed(String fragment) {
+        return new RichTextFragment(fragment, fragment, new int[0], 0, Collections.<String>emptyList());
+    }
+
+    @Override
+    public String getFragment() {
+        return fragment;
+    }
+
+    /**
+     * Returns the fragment after {@code xlink:}/{@code xmlns} processing but before links resolving.
+     *
+     * @return normalized fragment
+     */
+    String getText() {
+        return text;
+    }
+
+    /**
+     * Returns all TCM URIs found in {@code href} attributes of the fragment, in order of appearance.
+     *
+     * @return TCM URIs, possibly with duplicates
+     */
+    @Override
+    public List<String> getLinks() {
+        return links;
+    }
+
+    /**
+     * Returns TCM URIs of anchors ({@code <a href="tcm:1-2">}) to be rewritten, in order of appearance.
+     *
+     * @return TCM URIs of anchors, possibly with duplicates
+     */
+    List<String> getAnchorLinks() {
+        List<String> result = new ArrayList<>(anchorCount);
+        for (int i = 0; i < anchorCount; i++) {
+            result.add(_anchorLink(i));
+        }
+        return result;
+    }
+
+    /**
+     * Splices resolved links into the fragment. Anchors with non-resolved links are removed, as well as closing tags
+     * of links found in {@code notResolvedLinks}. Doesn't modify {@code notResolvedLinks}.
+     *
+     * @param batchOfLinks     resolved links by TCM URI
+     * @param notResolvedLinks TCM URIs of links that could not be resolved
+     * @return resolved fragment
+     */
+    String resolve(Map<String, String> batchOfLinks, Set<String> notResolvedLinks) {
+        Emitter emitter = new Emitter(new StringBuilder(text.length() + 16), notResolvedLinks);
+        int position = 0;
+        for (int i = 0; i < anchorCount; i++) {
+            int offset = i * 4;
+            emitter.write(text, position, anchors[offset]);
+
+            String link = batchOfLinks.get(_anchorLink(i));
+            if (link != null && !link.isEmpty()) {
+                emitter.write(text, anchors[offset], anchors[offset + 1]);
+                emitter.write(link, 0, link.length());
+                emitter.write(text, anchors[offset + 2], anchors[offset + 3]);
+            }
+            position = anchors[offset + 3];
+        }
+        emitter.write(text, position, text.length());
+        return emitter.finish();
+    }
+
+    private String _anchorLink(int index) {
+        return text.substring(anchors[index * 4 + 1], anchors[index * 4 + 2]);
+    }
+
+    /**
+     * Whitespace as in {@code \s} of regular expressions.
+     */
+    static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    /**
+     * ASCII case-insensitive match as with {@code Pattern.CASE_INSENSITIVE}.
+     *
+     * @param lowerCased expected value, lower case
+     */
+    private static boolean matchesIgnoreCase(CharSequence value, int offset, String lowerCased) {
+        if (offset < 0 || offset + lowerCased.length() > value.length()) {
+            return false;
+        }
+        for (int i = 0; i < lowerCased.length(); i++) {
+            if (!equalsIgnoreCase(value.charAt(offset + i), lowerCased.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean equalsIgnoreCase(char actual, char lowerCased) {
+        return actual == lowerCased || (lowerCased >= 'a' && lowerCased <= 'z' && actual == lowerCased - 32);
+    }
+
+    /**
+     * Single pass over the source fragment which writes the normalized text and records links and anchors.
+     */
+    private static final class Tokenizer {
+
+        private final String source;
+
+        private final int length;
+
+        private final boolean removeXmlns;
+
+        private final StringBuilder text;
+
+        private final List<String> links = new ArrayList<>();
+
+        private int[] hrefs = new int[12];
+
+        private int hrefCount;
+
+        private int hrefCursor;
+
+        private int[] anchors = new int[8];
+
+        private int anchorCount;
+
+        private int anchorStart = -1;
+
+        private int whitespaceCount;
+
+        private char lastWhitespace;
+
+        private int noAnchorBefore;
+
+        Tokenizer(String source, boolean removeXmlns) {
+            this.source = source;
+            this.length = source.length();
+            this.removeXmlns = removeXmlns;
+            this.text = new StringBuilder(length);
+        }
+
+        RichTextFragment tokenize() {
+            int i = 0;
+            while (i < length) {
+                char c = source.charAt(i);
+                int end = -1;
+                if (removeXmlns) {
+                    if (c == 'x' || c == 'X') {
+                        end = _matchXmlns(i);
+                    }
+                } else if (c == '<' && i >= noAnchorBefore && matchesIgnoreCase(source, i + 1, "a")) {
+                    end = _generateHref(i);
+                }
+
+                if (end > 0) {
+                    i = end;
+                } else {
+                    _feed(c);
+                    i++;
+                }
+            }
+            if (whitespaceCount > 0) {
+                _commit(lastWhitespace);
+            }
+            return new RichTextFragment(source, text.toString(), anchors, anchorCount,
+                    links.isEmpty() ? Collections.<String>emptyList() : links);
+        }
+
+        /**
+         * Matches {@code xlink:}, {@code xmlns="..."} and {@code xmlns:prefix="..."}.
+         *
+         * @return end of the match or {@code -1}
+         */
+        private int _matchXmlns(int start) {
+            if (matchesIgnoreCase(source, start + 1, "link:")) {
+                return start + 6;
+            }
+            if (!matchesIgnoreCase(source, start + 1, "mlns")) {
+                return -1;
+            }
+
+            int i = _skipWhitespace(start + 5);
+            if (i < length && source.charAt(i) == '=') {
+                i = _skipWhitespace(i + 1);
+                if (i < length && source.charAt(i) == '"') {
+                    int closing = source.indexOf('"', i + 1);
+                    if (closing >= 0) {
+                        return closing + 1;
+                    }
+                }
+            }
+
+            if (start + 5 < length && source.charAt(start + 5) == ':') {
+                int opening = source.indexOf('"', start + 6);
+                int closing = opening < 0 ? -1 : source.indexOf('"', opening + 1);
+                if (closing >= 0) {
+                    return closing + 1;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Duplicates {@code xlink:href} or {@code xmlns:href} of an anchor as {@code href} unless it's already there.
+         *
+         * @return end of the anchor or {@code -1} if there is nothing to generate
+         */
+        private int _generateHref(int start) {
+            int i = start + 2;
+            while (i < length && source.charAt(i) != '>') {
+                if (isWhitespace(source.charAt(i))) {
+                    int end = _generateHref(start, i);
+                    if (end > 0) {
+                        return end;
+                    }
+                }
+                i++;
+            }
+            // any other anchor start before the closing bracket cannot have an xlink:href either
+            noAnchorBefore = i;
+            return -1;
+        }
+
+        private int _generateHref(int start, int prefixStart) {
+            int i = prefixStart + 1;
+            if (!matchesIgnoreCase(source, i, "xlink:") && !matchesIgnoreCase(source, i, "xmlns:")) {
+                return -1;
+            }
+            int tagStart = i + 6;
+            if (!matchesIgnoreCase(source, tagStart, "href")) {
+                return -1;
+            }
+            i = _skipWhitespace(tagStart + 4);
+            if (i >= length || source.charAt(i) != '=') {
+                return -1;
+            }
+            int valueStart = _skipWhitespace(i + 1);
+            if (valueStart >= length || source.charAt(valueStart) != '"') {
+                return -1;
+            }
+            int valueEnd = source.indexOf('"', valueStart + 1) + 1;
+            if (valueEnd <= 0) {
+                return -1;
+            }
+            int end = source.indexOf('>', valueEnd) + 1;
+            if (end <= 0) {
+                return -1;
+            }
+
+            String value = source.substring(valueStart, valueEnd);
+            if (_hasHref(start, end, value)) {
+                _feed(source, start, end);
+            } else {
+                String tag = source.substring(tagStart, valueStart);
+                _feed(source, start, valueEnd);
+                _feed(' ');
+                _feed(tag, 0, tag.length());
+                _feed(value, 0, value.length());
+                _feed(source, valueEnd, end);
+            }
+            return end;
+        }
+
+        /**
+         * Checks whether an anchor already has {@code href} with the given value on the same line.
+         */
+        private boolean _hasHref(int start, int end, String value) {
+            for (int href = source.indexOf(" href", start); href >= 0 && href + 5 <= end; href = source.indexOf(" href", href + 1)) {
+                if (_hasLineTerminator(start, href)) {
+                    return false;
+                }
+                int i = _skipWhitespace(href + 5);
+                if (i >= end || source.charAt(i) != '=') {
+                    continue;
+                }
+                i = _skipWhitespace(i + 1);
+                if (i + value.length() <= end && source.startsWith(value, i)
+                        && !_hasLineTerminator(i + value.length(), end)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean _hasLineTerminator(int start, int end) {
+            for (int i = start; i < end; i++) {
+                if (isLineTerminator(source.charAt(i))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private int _skipWhitespace(int i) {
+            while (i < length && isWhitespace(source.charAt(i))) {
+                i++;
+            }
+            return i;
+        }
+
+        private void _feed(CharSequence chars, int start, int end) {
+            for (int i = start; i < end; i++) {
+                _feed(chars.charAt(i));
+            }
+        }
+
+        /**
+         * Collapses whitespace if namespaces are removed, otherwise commits characters as they are.
+         */
+        private void _feed(char c) {
+            if (!removeXmlns) {
+                _commit(c);
+                return;
+            }
+            if (isWhitespace(c)) {
+                whitespaceCount++;
+                lastWhitespace = c;
+                return;
+            }
+            if (whitespaceCount > 1 || (whitespaceCount == 1 && c != '>')) {
+                _commit(lastWhitespace);
+            }
+            whitespaceCount = 0;
+            _commit(c);
+        }
+
+        private void _commit(char c) {
+            int position = text.length();
+            text.append(c);
+            switch (c) {
+                case 'a':
+                case 'A':
+                    if (anchorStart < 0 && position > 0 && text.charAt(position - 1) == '<') {
+                        anchorStart = position - 1;
+                    }
+                    break;
+                case '"':
+                    _collectLink(position);
+                    break;
+                case '>':
+                    _closeTag(position);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        /**
+         * Looks backwards for {@code href="tcm:1-2"} ending with a quote at the given position.
+         */
+        private void _collectLink(int quote) {
+            int i = quote - 1;
+            while (i >= 0 && isDigit(text.charAt(i))) {
+                i--;
+            }
+            if (i == quote - 1 || i < 0 || text.charAt(i) != '-') {
+                return;
+            }
+            int dash = i--;
+            while (i >= 0 && isDigit(text.charAt(i))) {
+                i--;
+            }
+            if (i == dash - 1 || !matchesIgnoreCase(text, i - 3, TCM)) {
+                return;
+            }
+            int uriStart = i - 3;
+            i = uriStart - 1;
+            if (i < 0 || text.charAt(i) != '"') {
+                return;
+            }
+            i--;
+            while (i >= 0 && isWhitespace(text.charAt(i))) {
+                i--;
+            }
+            if (i < 0 || text.charAt(i) != '=') {
+                return;
+            }
+            i--;
+            while (i >= 0 && isWhitespace(text.charAt(i))) {
+                i--;
+            }
+            if (!matchesIgnoreCase(text, i - 3, "href")) {
+                return;
+            }
+
+            if ((hrefCount + 1) * 3 > hrefs.length) {
+                int[] grown = new int[hrefs.length * 2];
+                System.arraycopy(hrefs, 0, grown, 0, hrefs.length);
+                hrefs = grown;
+            }
+            hrefs[hrefCount * 3] = i - 3;
+            hrefs[hrefCount * 3 + 1] = uriStart;
+            hrefs[hrefCount * 3 + 2] = quote;
+            hrefCount++;
+            links.add(text.substring(uriStart, quote));
+        }
+
+        /**
+         * Completes an anchor if it's open and has a whitespace-prefixed {@code href} with a TCM URI.
+         */
+        private void _closeTag(int bracket) {
+            if (anchorStart >= 0) {
+                for (int h = hrefCursor; h < hrefCount; h++) {
+                    int hrefStart = hrefs[h * 3];
+                    if (hrefStart - 1 >= anchorStart + 2 && isWhitespace(text.charAt(hrefStart - 1))) {
+                        _addAnchor(anchorStart, hrefs[h * 3 + 1], hrefs[h * 3 + 2], bracket + 1);
+                        break;
+                    }
+                }
+                anchorStart = -1;
+            }
+            hrefCursor = hrefCount;
+        }
+
+        private void _addAnchor(int start, int uriStart, int uriEnd, int end) {
+            if ((anchorCount + 1) * 4 > anchors.length) {
+                int[] grown = new int[anchors.length * 2];
+                System.arraycopy(anchors, 0, grown, 0, anchors.length);
+                anchors = grown;
+            }
+            int offset = anchorCount * 4;
+            anchors[offset] = start;
+            anchors[offset + 1] = uriStart;
+            anchors[offset + 2] = uriEnd;
+            anchors[offset + 3] = end;
+            anchorCount++;
+        }
+    }
+
+    /**
+     * Writes the resolved fragment dropping {@code <!--CompLink tcm:1-2-->} markers and collapsing whitespace.
+     */
+    private static final class Emitter {
+
+        private static final int MARKER_WHITESPACE = 16;
+
+        private static final int MARKER_TCM = 17;
+
+        private static final int MARKER_ITEM = 21;
+
+        private static final int MARKER_ITEM_DIGITS = 22;
+
+        private static final int MARKER_ID = 23;
+
+        private static final int MARKER_ID_DIGITS = 24;
+
+        private static final int MARKER_CLOSING = 25;
+
+        private static final int MARKER_CLOSING_BRACKET = 26;
+
+        private static final int MARKER_MATCHED = 27;
+
+        private final StringBuilder out;
+
+        private final Set<String> notResolvedLinks;
+
+        private final StringBuilder marker = new StringBuilder(32);
+
+        private int state;
+
+        private int whitespaceCount;
+
+        private char lastWhitespace;
+
+        Emitter(StringBuilder out, Set<String> notResolvedLinks) {
+            this.out = out;
+            this.notResolvedLinks = notResolvedLinks;
+        }
+
+        void write(CharSequence chars, int start, int end) {
+            for (int i = start; i < end; i++) {
+                _write(chars.charAt(i));
+            }
+        }
+
+        String finish() {
+            for (int i = 0; i < marker.length(); i++) {
+                _emit(marker.charAt(i));
+            }
+            if (whitespaceCount > 0) {
+                out.append(lastWhitespace);
+            }
+            return out.toString();
+        }
+
+        private void _write(char c) {
+            if (state == 0 && c != '<') {
+                _emit(c);
+                return;
+            }
+
+            marker.append(c);
+            state = _next(state, c);
+            if (state == MARKER_MATCHED) {
+                String tcmUri = marker.substring(MARKER_TCM, marker.length() - 3);
+                if (!notResolvedLinks.contains(tcmUri)) {
+                    for (int i = 0; i < 4; i++) {
+                        _emit(marker.charAt(i));
+                    }
+                }
+                marker.setLength(0);
+                state = 0;
+            } else if (state < 0) {
+                // not a marker, emit the first character and look for a marker in the rest
+                String rest = marker.substring(1);
+                _emit(marker.charAt(0));
+                marker.setLength(0);
+                state = 0;
+                write(rest, 0, rest.length());
+            }
+        }
+
+        private static int _next(int state, char c) {
+            if (state < MARKER_WHITESPACE) {
+                return equalsIgnoreCase(c, END_LINK.charAt(state)) ? state + 1 : -1;
+            }
+            switch (state) {
+                case MARKER_WHITESPACE:
+                    return isWhitespace(c) ? MARKER_TCM : -1;
+                case MARKER_ITEM:
+                case MARKER_ID:
+                    return isDigit(c) ? state + 1 : -1;
+                case MARKER_ITEM_DIGITS:
+                case MARKER_ID_DIGITS:
+                    return isDigit(c) ? state : (c == '-' ? state + 1 : -1);
+                case MARKER_CLOSING:
+                    return c == '-' ? MARKER_CLOSING_BRACKET : -1;
+                case MARKER_CLOSING_BRACKET:
+                    return c == '>' ? MARKER_MATCHED : -1;
+                default:
+                    return equalsIgnoreCase(c, TCM.charAt(state - MARKER_TCM)) ? state + 1 : -1;
+            }
+        }
+
+        private void _emit(char c) {
+            if (isWhitespace(c)) {
+                whitespaceCount++;
+                lastWhitespace = c;
+                return;
+            }
+            if (whitespaceCount > 1 || (whitespaceCount == 1 && c != '>')) {
+                out.append(lastWhitespace);
+            }
+            whitespaceCount = 0;
+            out.append(c);
+        }
+    }
+}
@@ -1,9 +1,9 @@
 package com.sdl.dxa.tridion.linking.processors;
 
+import com.sdl.dxa.tridion.linking.ParsedRichTextFragment;
 import com.sdl.dxa.tridion.linking.RichTextLinkResolver;
 import com.sdl.dxa.tridion.linking.api.processors.LinkListProcessor;
 
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
@@ -13,9 +13,13 @@ public class FragmentLinkListProcessor implements LinkListProcessor {
 
     private Map<String, String> model;
     private String key;
-    private String value;
+    private ParsedRichTextFragment value;
 
     public FragmentLinkListProcessor(Map<String, String> map, String key, String value, RichTextLinkResolver resolver) {
+        this(map, key, resolver.parseFragment(value), resolver);
+    }
+
+    public FragmentLinkListProcessor(Map<String, String> map, String key, ParsedRichTextFragment value, RichTextLinkResolver resolver) {
         this.model = map;
 
         this.key = key;
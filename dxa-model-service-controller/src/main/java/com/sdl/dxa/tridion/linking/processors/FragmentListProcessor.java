@@ -1,6 +1,7 @@
 package com.sdl.dxa.tridion.linking.processors;
 
 import com.sdl.dxa.api.datamodel.model.RichTextData;
+import com.sdl.dxa.tridion.linking.ParsedRichTextFragment;
 import com.sdl.dxa.tridion.linking.RichTextLinkResolver;
 import com.sdl.dxa.tridion.linking.api.processors.LinkListProcessor;
 
@@ -16,9 +17,26 @@ public class FragmentListProcessor implements LinkListProcessor {
 
     private RichTextData model;
 
+    private List<Object> fragments;
+
+    public FragmentListProcessor(RichTextData model,
+                                 RichTextLinkResolver resolver) {
+        this(model, model.getFragments(), resolver);
+    }
+
+    /**
+     * Creates a processor for fragments which have been already parsed.
+     *
+     * @param model     rich text to update
+     * @param fragments fragments of the rich text in the same order, where text fragments are either
+     *                  {@link ParsedRichTextFragment}s or plain strings
+     * @param resolver  resolver to splice links into fragments
+     */
     public FragmentListProcessor(RichTextData model,
+                                 List<Object> fragments,
                                  RichTextLinkResolver resolver) {
         this.model = model;
+        this.fragments = fragments;
         this.resolver = resolver;
     }
 
@@ -26,8 +44,11 @@ public class FragmentListProcessor implements LinkListProcessor {
     public void update(Map<String, String> links, Set<String> notResolvedLinks) {
         if (notResolvedLinks == null) notResolvedLinks = new HashSet<>();
         List<Object> resolvedFragments = new ArrayList<>();
-        for (Object fragment : model.getFragments()) {
-            if (fragment instanceof String) {
+        for (Object fragment : fragments) {
+            if (fragment instanceof ParsedRichTextFragment) {
+                ParsedRichTextFragment parsedFragment = (ParsedRichTextFragment) fragment;
+                resolvedFragments.add(this.resolver.processFragment(parsedFragment, links, notResolvedLinks));
+            } else if (fragment instanceof String) {
                 String fragmentString = (String) fragment;
                 String resolvedFragment = this.resolver.processFragment(fragmentString, links, notResolvedLinks);
                 resolvedFragments.add(resolvedFragment);
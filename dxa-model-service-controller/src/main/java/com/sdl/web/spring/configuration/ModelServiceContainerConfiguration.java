@@ -20,6 +20,45 @@ public class ModelServiceContainerConfiguration implements InitializingBean {
     @Value("${dxa.defaults.rich-text-resolve:not_defined}")
     private String richTextResolve;
 
+    @Value("${dxa.defaults.page-entity-cache-size:not_defined}")
+    private String pageEntityCacheSize;
+
+    @Value("${dxa.defaults.entity-expansion-threads:not_defined}")
+    private String entityExpansionThreads;
+
+    @Value("${dxa.defaults.include-page-threads:not_defined}")
+    private String includePageThreads;
+
+    @Value("${dxa.defaults.async-link-resolution-threads:not_defined}")
+    private String asyncLinkResolutionThreads;
+
+    @Value("${dxa.defaults.async-link-resolution-batch-size:not_defined}")
+    private String asyncLinkResolutionBatchSize;
+
+    @Value("${dxa.defaults.page-expansion-timeout:not_defined}")
+    private String pageExpansionTimeout;
+
+    @Value("${dxa.defaults.page-url-index-max-size:not_defined}")
+    private String pageUrlIndexMaxSize;
+
+    @Value("${dxa.defaults.page-url-index-ttl:not_defined}")
+    private String pageUrlIndexTtl;
+
+    @Value("${dxa.defaults.page-url-index-preload:not_defined}")
+    private String pageUrlIndexPreload;
+
+    @Value("${dxa.defaults.rendered-model-cache:not_defined}")
+    private String renderedModelCache;
+
+    @Value("${dxa.defaults.rendered-model-compression:not_defined}")
+    private String renderedModelCompression;
+
+    @Value("${dxa.defaults.keyword-cache-max-size:not_defined}")
+    private String keywordCacheMaxSize;
+
+    @Value("${dxa.defaults.keyword-cache-ttl:not_defined}")
+    private String keywordCacheTtl;
+
     @Value("${dxa.web.link-resolver.remove-extension:not_defined}")
     private String linkResolverRemoveExtension;
 
@@ -29,6 +68,24 @@ public class ModelServiceContainerConfiguration implements InitializingBean {
     @Value("${dxa.web.link-resolver.keep-trailing-slash:not_defined}")
     private String linkResolverKeepTrailingSlash;
 
+    @Value("${dxa.web.link-resolver.cache-max-size:not_defined}")
+    private String linkResolverCacheMaxSize;
+
+    @Value("${dxa.web.link-resolver.cache-ttl:not_defined}")
+    private String linkResolverCacheTtl;
+
+    @Value("${dxa.web.link-resolver.type-hints-max-size:not_defined}")
+    private String linkResolverTypeHintsMaxSize;
+
+    @Value("${dxa.web.link-resolver.type-hints-ttl:not_defined}")
+    private String linkResolverTypeHintsTtl;
+
+    @Value("${dxa.web.link-resolver.max-batch-size:not_defined}")
+    private String linkResolverMaxBatchSize;
+
+    @Value("${dxa.web.link-resolver.threads:not_defined}")
+    private String linkResolverThreads;
+
     @Value("${dxa.errors.missing-keyword-suppress:not_defined}")
     private String missingKeywordSuppress;
 
@@ -1,13 +1,20 @@
 package com.sdl.dxa.modelservice.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.sdl.dxa.DxaModelServiceApplication;
+import com.sdl.dxa.api.datamodel.DataModelSpringConfiguration;
+import com.sdl.dxa.api.datamodel.model.PageModelData;
 import com.sdl.dxa.common.dto.ContentType;
 import com.sdl.dxa.common.dto.DataModelType;
 import com.sdl.dxa.common.dto.PageRequestDto;
 import com.sdl.dxa.modelservice.TestTridionConfiguration;
+import com.sdl.dxa.modelservice.service.ConfigService;
 import com.sdl.dxa.modelservice.service.ContentService;
 import com.sdl.dxa.modelservice.service.LegacyPageModelService;
 import com.sdl.dxa.modelservice.service.PageModelService;
+import com.sdl.dxa.modelservice.service.processing.expansion.ExpansionDeadline;
+import com.sdl.dxa.modelservice.spring.SmileHttpMessageConverter;
 import org.hamcrest.BaseMatcher;
 import org.hamcrest.Description;
 import org.junit.Test;
@@ -18,14 +25,24 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 
+import java.io.IOException;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.BDDMockito.any;
 import static org.mockito.BDDMockito.argThat;
+import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.verify;
 import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.times;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @RunWith(SpringRunner.class)
@@ -45,6 +62,9 @@ public class PageModelControllerTest {
     @Autowired
     private MockMvc mvc;
 
+    @Autowired
+    private ConfigService configService;
+
     @Test
     public void shouldReturnExpectedPathForSimpleCases() throws Exception {
         expectForUrl("/example/to/site", "/PageModel/tcm/42/example/to/site");
@@ -98,7 +118,7 @@ public class PageModelControllerTest {
         mvc.perform(get("/PageModel/tcm/42//?modelType=DD4T&raw=true")).andExpect(status().isOk());
 
         //then
-        verify(this.contentService, atLeastOnce()).loadPageContent(matcherFor(DataModelType.DD4T, ContentType.RAW,
+        verify(this.contentService, atLeastOnce()).loadPageModelContent(matcherFor(DataModelType.DD4T, ContentType.RAW,
                 Optional.of("/"), Optional.empty()));
     }
 
@@ -122,7 +142,7 @@ public class PageModelControllerTest {
         mvc.perform(get("/PageModel/tcm/42//?raw=true")).andExpect(status().isOk());
 
         //then
-        verify(this.contentService, atLeastOnce()).loadPageContent(matcherFor(DataModelType.R2, ContentType.RAW,
+        verify(this.contentService, atLeastOnce()).loadPageModelContent(matcherFor(DataModelType.R2, ContentType.RAW,
                 Optional.of("/"), Optional.empty()));
     }
 
@@ -134,10 +154,98 @@ public class PageModelControllerTest {
         mvc.perform(get("/PageModel/tcm/42-123?raw=true")).andExpect(status().isOk());
 
         //then
-        verify(this.contentService, atLeastOnce()).loadPageContent(matcherFor(DataModelType.R2, ContentType.RAW,
+        verify(this.contentService, atLeastOnce()).loadPageModelContent(matcherFor(DataModelType.R2, ContentType.RAW,
                 Optional.empty(), Optional.of(123)));
     }
 
+    @Test
+    public void shouldSendModelInSmile_IfClientAsksForIt() throws Exception {
+        //given
+        ObjectMapper objectMapper = new DataModelSpringConfiguration().dxaR2ObjectMapper();
+        PageModelData page = objectMapper.readValue("{\"Id\":\"1\",\"Title\":\"Smile\",\"Regions\":[{\"Name\":\"Main\"}]}", PageModelData.class);
+        given(pageModelService.loadPageModel(any(PageRequestDto.class))).willReturn(page);
+
+        //when
+        MvcResult result = mvc.perform(get("/PageModel/tcm/42/smile/page").accept(SmileHttpMessageConverter.APPLICATION_SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(SmileHttpMessageConverter.APPLICATION_SMILE))
+                .andReturn();
+
+        //then
+        PageModelData received = objectMapper.readValue(
+                new SmileFactory().createParser(result.getResponse().getContentAsByteArray()), PageModelData.class);
+        assertEquals(objectMapper.writeValueAsString(page), objectMapper.writeValueAsString(received));
+    }
+
+    @Test
+    public void shouldMarkPartialModel_AndNotCacheIt() throws Exception {
+        //given
+        given(pageModelService.loadPageModel(any(PageRequestDto.class))).willAnswer(invocation -> {
+            ExpansionDeadline.current().markPartial();
+            return _page("Partial");
+        });
+
+        //when
+        for (int i = 0; i < 2; i++) {
+            mvc.perform(get("/PageModel/tcm/42/partial/page").header(PageModelController.EXPANSION_TIMEOUT_HEADER, "60000"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(PageModelController.PARTIAL_MODEL_HEADER, "true"));
+        }
+
+        //then
+        verify(pageModelService, times(2)).loadPageModel(matcherFor("/partial/page"));
+    }
+
+    @Test
+    public void shouldNotMarkModel_IfItIsComplete() throws Exception {
+        //given
+        given(pageModelService.loadPageModel(any(PageRequestDto.class))).willReturn(_page("Complete"));
+
+        //when
+        mvc.perform(get("/PageModel/tcm/42/complete/page").header(PageModelController.EXPANSION_TIMEOUT_HEADER, "60000"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(PageModelController.PARTIAL_MODEL_HEADER));
+
+        //then
+        verify(pageModelService, times(1)).loadPageModel(matcherFor("/complete/page"));
+    }
+
+    @Test
+    public void shouldOnlyLowerConfiguredTimeout_WithHeader() throws Exception {
+        //given
+        AtomicReference<ExpansionDeadline> deadline = new AtomicReference<>();
+        given(pageModelService.loadPageModel(any(PageRequestDto.class))).willAnswer(invocation -> {
+            deadline.set(ExpansionDeadline.current());
+            return _page("Budget");
+        });
+        long configuredTimeout = configService.getDefaults().getPageExpansionTimeout();
+        configService.getDefaults().setPageExpansionTimeout(30_000);
+
+        try {
+            //when
+            mvc.perform(get("/PageModel/tcm/42/budget/page/0").header(PageModelController.EXPANSION_TIMEOUT_HEADER, "0"))
+                    .andExpect(status().isOk());
+            ExpansionDeadline switchedOff = deadline.get();
+            mvc.perform(get("/PageModel/tcm/42/budget/page/raised").header(PageModelController.EXPANSION_TIMEOUT_HEADER, "600000"))
+                    .andExpect(status().isOk());
+            ExpansionDeadline raised = deadline.get();
+            mvc.perform(get("/PageModel/tcm/42/budget/page/lowered").header(PageModelController.EXPANSION_TIMEOUT_HEADER, "10000"))
+                    .andExpect(status().isOk());
+            ExpansionDeadline lowered = deadline.get();
+
+            //then
+            assertTrue(switchedOff.remainingMillis() > 10_000 && switchedOff.remainingMillis() <= 30_000);
+            assertTrue(raised.remainingMillis() > 10_000 && raised.remainingMillis() <= 30_000);
+            assertTrue(lowered.remainingMillis() <= 10_000);
+        } finally {
+            configService.getDefaults().setPageExpansionTimeout(configuredTimeout);
+        }
+    }
+
+    private static PageModelData _page(String title) throws IOException {
+        return new DataModelSpringConfiguration().dxaR2ObjectMapper()
+                .readValue("{\"Id\":\"1\",\"Title\":\"" + title + "\",\"Regions\":[]}", PageModelData.class);
+    }
 
     private void expectForUrl(String expected, String url, String contextPath) throws Exception {
         MockHttpServletRequestBuilder requestBuilder = get(url);
@@ -0,0 +1,42 @@
+package com.sdl.dxa.modelservice.service;
+
+import com.tridion.ambientdata.AmbientDataContext;
+import com.tridion.ambientdata.claimstore.ClaimStore;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+
+public class ClaimStoreAwareExecutorServiceTest {
+
+    private final ExecutorService executor = new ClaimStoreAwareExecutorService(Executors.newSingleThreadExecutor());
+
+    @After
+    public void shutdown() {
+        executor.shutdownNow();
+        AmbientDataContext.setCurrentClaimStore(null);
+    }
+
+    @Test
+    public void shouldRunTasks_WithClaimStoreOfSubmittingThread() throws Exception {
+        //given
+        ClaimStore workerClaimStore = executor.submit(AmbientDataContext::getCurrentClaimStore).get();
+        ClaimStore claimStore = mock(ClaimStore.class);
+        AmbientDataContext.setCurrentClaimStore(claimStore);
+
+        //when
+        ClaimStore inTask = executor.submit(AmbientDataContext::getCurrentClaimStore).get();
+        AmbientDataContext.setCurrentClaimStore(null);
+        ClaimStore afterTask = executor.submit(AmbientDataContext::getCurrentClaimStore).get();
+
+        //then
+        assertSame(claimStore, inTask);
+        assertNotSame(claimStore, afterTask);
+        assertSame(workerClaimStore, afterTask);
+    }
+}
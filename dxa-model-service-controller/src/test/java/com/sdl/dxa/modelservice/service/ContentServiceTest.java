@@ -3,6 +3,7 @@ package com.sdl.dxa.modelservice.service;
 import com.sdl.dxa.common.dto.DataModelType;
 import com.sdl.dxa.common.dto.EntityRequestDto;
 import com.sdl.dxa.common.dto.PageRequestDto;
+import com.sdl.dxa.modelservice.service.caching.PageUrlIndex;
 import com.sdl.dxa.tridion.compatibility.TridionQueryLoader;
 import com.sdl.webapp.common.api.content.ContentProviderException;
 import com.sdl.webapp.common.api.content.PageNotFoundException;
@@ -25,16 +26,21 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.core.io.ClassPathResource;
 
 import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
 
 import static com.sdl.dxa.modelservice.service.ContentService.getModelType;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -122,6 +128,64 @@ public class ContentServiceTest {
         assertEquals("characterData", content);
     }
 
+    @Test
+    public void shouldTakePageIdFromIndex_IfPathWasRequestedBefore() throws Exception {
+        //given
+        PageUrlIndex pageUrlIndex = new PageUrlIndex(100, 60);
+        contentService.setPageUrlIndex(pageUrlIndex);
+        doReturn(new String[]{"tcm:1-2"}).when(queryLoader).constructQueryAndSetResultFilter(anyObject(), anyObject());
+
+        //when
+        String first = contentService.loadPageContent(PageRequestDto.builder(1, "/path.html").build());
+        String second = contentService.loadPageContent(PageRequestDto.builder(1, "/path.html").build());
+
+        //then
+        assertEquals("characterData", first);
+        assertEquals("characterData", second);
+        verify(queryLoader, times(1)).constructQueryAndSetResultFilter(anyObject(), anyObject());
+        assertEquals(1, pageUrlIndex.getHitCount());
+    }
+
+    @Test
+    public void shouldNotTakePageFoundWithoutExtension_ForExplicitUrl() throws Exception {
+        //given
+        PageUrlIndex pageUrlIndex = new PageUrlIndex(100, 60);
+        contentService.setPageUrlIndex(pageUrlIndex);
+        // only /path/index.html is published, it is found for /path but not for /path.html
+        doReturn(new String[]{"tcm:1-2"}).doReturn(new String[0])
+                .when(queryLoader).constructQueryAndSetResultFilter(anyObject(), anyObject());
+
+        //when
+        String folder = contentService.loadPageContent(PageRequestDto.builder(1, "/path").build());
+        try {
+            contentService.loadPageContent(PageRequestDto.builder(1, "/path.html").build());
+            fail("Page found without extension is returned for explicit URL");
+        } catch (PageNotFoundException e) {
+            // expected
+        }
+        String folderAgain = contentService.loadPageContent(PageRequestDto.builder(1, "/path").build());
+
+        //then
+        assertEquals("characterData", folder);
+        assertEquals("characterData", folderAgain);
+        verify(queryLoader, times(2)).constructQueryAndSetResultFilter(anyObject(), anyObject());
+        assertEquals(1, pageUrlIndex.getHitCount());
+    }
+
+    @Test
+    public void shouldCopyPageContentToUtf8Bytes_WithoutLoadingItAsString() throws Exception {
+        //given
+        doReturn(new StringReader("{\"Title\":\"Caf\u00e9\",\"Regions\":[]}")).when(pageContentMock).getReader();
+
+        //when
+        ModelContent content = contentService.loadPageModelContent(PageRequestDto.builder(1, "/path.html").pageId(2).build());
+
+        //then
+        assertEquals("{\"Title\":\"Caf\u00e9\",\"Regions\":[]}", new String(content.getContent(), StandardCharsets.UTF_8));
+        assertEquals(DataModelType.R2, content.getModelType());
+        verify(pageContentMock, never()).getString();
+    }
+
     @Test(expected = PageNotFoundException.class)
     public void shouldThrow404Exception_WhenNoResultFound_ForRequest() throws StorageException, ContentProviderException {
         //given
@@ -161,6 +225,28 @@ public class ContentServiceTest {
         assertEquals(DataModelType.R2, r2Entity2);
     }
 
+    @Test
+    public void shouldDetectModel_ByLeadingTopLevelFields() {
+        //given
+        String r2PageStart = "{\"Id\":\"1\",\"Title\":{\"ComponentPresentations\":[]},\"UrlPath\":\"/index\",\"Regions\":[";
+        String dd4tPage = "{\"Id\":\"tcm:1-2-64\",\"Filename\":\"index\",\"Metadata\":{\"UrlPath\":\"/index\"}}";
+        String r2Entity = "{\"SchemaId\":\"4887\",\"Content\":{\"ComponentType\":\"text\"}}";
+
+        //when
+        DataModelType r2Page = getModelType(r2PageStart);
+        DataModelType dd4t = getModelType(dd4tPage);
+        DataModelType r2 = getModelType(r2Entity);
+        DataModelType r2Bytes = getModelType(r2Entity.getBytes(StandardCharsets.UTF_8));
+        DataModelType dd4tBytes = getModelType(dd4tPage.getBytes(StandardCharsets.UTF_8));
+
+        //then
+        assertEquals(DataModelType.R2, r2Page);
+        assertEquals(DataModelType.DD4T, dd4t);
+        assertEquals(DataModelType.R2, r2);
+        assertEquals(DataModelType.R2, r2Bytes);
+        assertEquals(DataModelType.DD4T, dd4tBytes);
+    }
+
     @Test
     public void shouldLoadRenderedComponentPresentation() throws Exception {
         //given
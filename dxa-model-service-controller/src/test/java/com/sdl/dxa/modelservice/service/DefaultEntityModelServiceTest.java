@@ -0,0 +1,102 @@
+package com.sdl.dxa.modelservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sdl.dxa.api.datamodel.DataModelSpringConfiguration;
+import com.sdl.dxa.api.datamodel.model.EntityModelData;
+import com.sdl.dxa.common.dto.DataModelType;
+import com.sdl.dxa.common.dto.EntityRequestDto;
+import com.sdl.dxa.tridion.content.StaticContentResolver;
+import com.sdl.dxa.tridion.linking.api.BatchLinkResolver;
+import com.sdl.dxa.tridion.linking.api.BatchLinkResolverFactory;
+import com.sdl.dxa.tridion.linking.impl.RichTextLinkResolverImpl;
+import com.sdl.webapp.common.api.content.ContentProviderException;
+import com.sdl.webapp.common.exceptions.DxaItemNotFoundException;
+import com.tridion.dcp.ComponentPresentation;
+import org.dd4t.core.databind.DataBinder;
+import org.dd4t.core.processors.impl.RichTextResolver;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class DefaultEntityModelServiceTest {
+
+    private final ObjectMapper objectMapper = new DataModelSpringConfiguration().dxaR2ObjectMapper();
+
+    private final ContentService contentService = mock(ContentService.class);
+
+    private DefaultEntityModelService service;
+
+    @Before
+    public void init() throws ContentProviderException {
+        ConfigService configService = new ConfigService(new ConfigService.Defaults(mock(StaticContentResolver.class), objectMapper));
+        BatchLinkResolverFactory batchLinkResolverFactory = mock(BatchLinkResolverFactory.class);
+        when(batchLinkResolverFactory.getBatchLinkResolver()).thenReturn(mock(BatchLinkResolver.class));
+
+        service = new DefaultEntityModelService(objectMapper, contentService, mock(DataBinder.class), mock(RichTextResolver.class),
+                mock(RichTextLinkResolverImpl.class), configService, batchLinkResolverFactory);
+        service.setCacheManager(new ConcurrentMapCacheManager("entityModels"));
+
+        ComponentPresentation componentPresentation = mock(ComponentPresentation.class);
+        when(componentPresentation.getContent()).thenReturn("{\"Id\":\"10-20\",\"SchemaId\":\"10\",\"Content\":{\"headline\":\"Title\"}}");
+        when(contentService.loadComponentPresentation(any(EntityRequestDto.class))).thenReturn(componentPresentation);
+    }
+
+    @Test
+    public void shouldLoadEntityWithoutLinksOnce_AndReturnIndependentCopies() throws ContentProviderException {
+        //when
+        EntityModelData first = service.loadEntity(EntityRequestDto.builder(1, "10-20", 30).build(), false);
+        first.setLinkUrl("/resolved/by/page");
+        EntityModelData second = service.loadEntity(EntityRequestDto.builder(1, "10-20", 40).build(), false);
+
+        //then
+        verify(contentService, times(1)).loadComponentPresentation(any(EntityRequestDto.class));
+        assertNotSame(first, second);
+        assertEquals("10", second.getSchemaId());
+        assertNull(second.getLinkUrl());
+    }
+
+    @Test
+    public void shouldNotShareEntities_BetweenDifferentRequests() throws ContentProviderException {
+        //when
+        service.loadEntity(EntityRequestDto.builder(1, "10-20", 30).build(), false);
+        service.loadEntity(EntityRequestDto.builder(1, "10-20", 30).uriType("ish").build(), false);
+        service.loadEntity(EntityRequestDto.builder(2, "10-20", 30).build(), false);
+        service.loadEntity(EntityRequestDto.builder(1, "10-21", 30).build(), false);
+        service.loadEntity(EntityRequestDto.builder(1, "10-20", 30).dataModelType(DataModelType.DD4T).build(), false);
+
+        //then
+        verify(contentService, times(5)).loadComponentPresentation(any(EntityRequestDto.class));
+    }
+
+    @Test
+    public void shouldNotCacheEntities_WithResolvedLinks() throws ContentProviderException {
+        //when
+        service.loadEntity(EntityRequestDto.builder(1, "10-20", 30).build(), true);
+        service.loadEntity(EntityRequestDto.builder(1, "10-20", 30).build(), false);
+        service.loadEntity(EntityRequestDto.builder(1, "10-20", 30).build(), true);
+
+        //then
+        verify(contentService, times(3)).loadComponentPresentation(any(EntityRequestDto.class));
+    }
+
+    @Test(expected = DxaItemNotFoundException.class)
+    public void shouldRethrowLoadingFailure_AsIs() throws ContentProviderException {
+        //given
+        when(contentService.loadComponentPresentation(any(EntityRequestDto.class)))
+                .thenThrow(new DxaItemNotFoundException("Entity is not published"));
+
+        //when
+        service.loadEntity(EntityRequestDto.builder(1, "10-20", 30).build(), false);
+
+        //then exception
+    }
+}
@@ -0,0 +1,267 @@
+package com.sdl.dxa.modelservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sdl.dxa.api.datamodel.DataModelSpringConfiguration;
+import com.sdl.dxa.api.datamodel.model.EntityModelData;
+import com.sdl.dxa.api.datamodel.model.PageModelData;
+import com.sdl.dxa.api.datamodel.model.RegionModelData;
+import com.sdl.dxa.common.dto.DataModelType;
+import com.sdl.dxa.common.dto.EntityRequestDto;
+import com.sdl.dxa.common.dto.PageRequestDto;
+import com.sdl.dxa.modelservice.service.processing.conversion.ToDd4tConverter;
+import com.sdl.dxa.modelservice.service.processing.conversion.ToR2Converter;
+import com.sdl.dxa.modelservice.service.processing.expansion.DataModelExpansionException;
+import com.sdl.dxa.modelservice.service.processing.expansion.ExpansionDeadline;
+import com.sdl.dxa.tridion.content.StaticContentResolver;
+import com.sdl.dxa.tridion.linking.api.BatchLinkResolver;
+import com.sdl.dxa.tridion.linking.api.BatchLinkResolverFactory;
+import com.sdl.dxa.tridion.linking.impl.RichTextLinkResolverImpl;
+import com.sdl.webapp.common.api.content.ContentProviderException;
+import org.dd4t.core.databind.DataBinder;
+import org.dd4t.core.processors.impl.RichTextResolver;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class DefaultPageModelServiceTest {
+
+    private static final String PAGE = "{\"Id\":\"1\",\"Title\":\"Home\",\"Meta\":{},\"Regions\":[" +
+            "{\"Name\":\"Header\",\"IncludePageId\":\"2\"},{\"Name\":\"Main\"},{\"Name\":\"Footer\",\"IncludePageId\":\"3\"}]}";
+
+    private final ObjectMapper objectMapper = new DataModelSpringConfiguration().dxaR2ObjectMapper();
+
+    private final ContentService contentService = mock(ContentService.class);
+
+    private final EntityModelService entityModelService = mock(EntityModelService.class);
+
+    private ConfigService configService;
+
+    private ForkJoinPool includePageExecutor;
+
+    private DefaultPageModelService service;
+
+    @Before
+    public void init() throws ContentProviderException {
+        configService = new ConfigService(new ConfigService.Defaults(mock(StaticContentResolver.class), objectMapper));
+        configService.getErrors().setMissingIncludePageSuppress(true);
+        BatchLinkResolverFactory batchLinkResolverFactory = mock(BatchLinkResolverFactory.class);
+        when(batchLinkResolverFactory.getBatchLinkResolver()).thenReturn(mock(BatchLinkResolver.class));
+
+        service = new DefaultPageModelService(objectMapper, configService, entityModelService, contentService,
+                mock(ToDd4tConverter.class), mock(ToR2Converter.class), mock(RichTextLinkResolverImpl.class),
+                mock(DataBinder.class), mock(RichTextResolver.class), batchLinkResolverFactory);
+        includePageExecutor = new ForkJoinPool(2);
+        service.setIncludePageExecutor(new ClaimStoreAwareExecutorService(includePageExecutor));
+
+        when(contentService.loadPageModelContent(any(PageRequestDto.class))).thenReturn(ModelContent.of(_bytes(PAGE)));
+        when(contentService.loadPageContentBytes(1, 2)).thenReturn(_bytes("{\"Id\":\"2\",\"Meta\":{},\"Regions\":[{\"Name\":\"Navigation\"}]}"));
+        when(contentService.loadPageContentBytes(1, 3)).thenReturn(_bytes("{\"Id\":\"3\",\"Meta\":{},\"Regions\":[{\"Name\":\"Copyright\"}]}"));
+    }
+
+    @After
+    public void shutdown() {
+        includePageExecutor.shutdownNow();
+    }
+
+    @Test
+    public void shouldAddIncludePages_InOriginalOrder() throws ContentProviderException {
+        //when
+        PageModelData page = service.loadPageModel(_request());
+
+        //then
+        assertEquals(asList("Header", "Main", "Footer"), _names(page.getRegions()));
+        assertEquals(singletonList("Navigation"), _names(page.getRegions().get(0).getRegions()));
+        assertTrue(_names(page.getRegions().get(1).getRegions()).isEmpty());
+        assertEquals(singletonList("Copyright"), _names(page.getRegions().get(2).getRegions()));
+    }
+
+    @Test
+    public void shouldLoadIncludePages_Concurrently() throws ContentProviderException {
+        //given
+        CountDownLatch footerStarted = new CountDownLatch(1);
+        when(contentService.loadPageContentBytes(1, 2)).thenAnswer(invocation -> {
+            // header waits for footer, which only succeeds if both are loaded at the same time
+            assertTrue("Include pages are not loaded concurrently", footerStarted.await(10, TimeUnit.SECONDS));
+            return _bytes("{\"Id\":\"2\",\"Meta\":{},\"Regions\":[{\"Name\":\"Navigation\"}]}");
+        });
+        when(contentService.loadPageContentBytes(1, 3)).thenAnswer(invocation -> {
+            footerStarted.countDown();
+            return _bytes("{\"Id\":\"3\",\"Meta\":{},\"Regions\":[{\"Name\":\"Copyright\"}]}");
+        });
+
+        //when
+        PageModelData page = service.loadPageModel(_request());
+
+        //then
+        assertEquals(singletonList("Navigation"), _names(page.getRegions().get(0).getRegions()));
+        assertEquals(singletonList("Copyright"), _names(page.getRegions().get(2).getRegions()));
+    }
+
+    @Test
+    public void shouldExpandNestedEntitiesOfConcurrentIncludePages_Completely() throws ContentProviderException {
+        //given
+        when(contentService.loadPageContentBytes(1, 2)).thenReturn(
+                _bytes("{\"Id\":\"2\",\"Meta\":{},\"Regions\":[{\"Name\":\"Navigation\",\"Entities\":[{\"Id\":\"10-20\"}]}]}"));
+        when(contentService.loadPageContentBytes(1, 3)).thenReturn(
+                _bytes("{\"Id\":\"3\",\"Meta\":{},\"Regions\":[{\"Name\":\"Copyright\",\"Entities\":[{\"Id\":\"11-20\"}]}]}"));
+        CountDownLatch footerExpanding = new CountDownLatch(1);
+        when(entityModelService.loadEntity(any(EntityRequestDto.class))).thenAnswer(invocation -> {
+            int componentId = ((EntityRequestDto) invocation.getArguments()[0]).getComponentId();
+            if (componentId == 10) {
+                // header is expanded while footer is expanded too
+                assertTrue("Include pages are not expanded concurrently", footerExpanding.await(10, TimeUnit.SECONDS));
+            } else if (componentId == 11) {
+                footerExpanding.countDown();
+            }
+            String nested = componentId < 20 ? ",\"Content\":{\"teaser\":{\"$type\":\"EntityModelData\",\"Id\":\"" + (componentId + 10) + "-20\"}}" : "";
+            return objectMapper.readValue("{\"Id\":\"" + componentId + "-20\",\"SchemaId\":\"" + componentId + "\"" + nested + "}",
+                    EntityModelData.class);
+        });
+
+        //when
+        PageModelData page = service.loadPageModel(_request());
+
+        //then
+        EntityModelData header = page.getRegions().get(0).getRegions().get(0).getEntities().get(0);
+        EntityModelData footer = page.getRegions().get(2).getRegions().get(0).getEntities().get(0);
+        assertEquals("10", header.getSchemaId());
+        assertEquals("20", ((EntityModelData) header.getContent().get("teaser")).getSchemaId());
+        assertEquals("11", footer.getSchemaId());
+        assertEquals("21", ((EntityModelData) footer.getContent().get("teaser")).getSchemaId());
+    }
+
+    @Test
+    public void shouldSuppressMissingIncludePage_IfConfigured() throws ContentProviderException {
+        //given
+        when(contentService.loadPageContentBytes(1, 3)).thenThrow(new ContentProviderException("Include page is not published"));
+
+        //when
+        PageModelData page = service.loadPageModel(_request());
+
+        //then
+        assertEquals(asList("Header", "Main", "Footer"), _names(page.getRegions()));
+        assertEquals(singletonList("Navigation"), _names(page.getRegions().get(0).getRegions()));
+        assertTrue(_names(page.getRegions().get(2).getRegions()).isEmpty());
+    }
+
+    @Test
+    public void shouldNotWaitForIncludePage_LongerThanDeadline_AndNotCacheIt() throws ContentProviderException {
+        //given
+        service.setCacheManager(new ConcurrentMapCacheManager("includePages"));
+        CountDownLatch footerReleased = new CountDownLatch(1);
+        when(contentService.loadPageContentBytes(1, 3)).thenAnswer(invocation -> {
+            footerReleased.await(10, TimeUnit.SECONDS);
+            return _bytes("{\"Id\":\"3\",\"Meta\":{},\"Regions\":[{\"Name\":\"Copyright\"}]}");
+        });
+
+        //when
+        ExpansionDeadline deadline = ExpansionDeadline.start(200);
+        PageModelData partialPage;
+        try {
+            partialPage = service.loadPageModel(_request());
+        } finally {
+            ExpansionDeadline.clear();
+            footerReleased.countDown();
+        }
+        includePageExecutor.awaitQuiescence(10, TimeUnit.SECONDS);
+        PageModelData completePage = service.loadPageModel(_request());
+
+        //then
+        assertTrue(deadline.isPartial());
+        assertEquals(singletonList("Navigation"), _names(partialPage.getRegions().get(0).getRegions()));
+        assertTrue(_names(partialPage.getRegions().get(2).getRegions()).isEmpty());
+        assertEquals(singletonList("Copyright"), _names(completePage.getRegions().get(2).getRegions()));
+        verify(contentService, times(2)).loadPageContentBytes(1, 3);
+    }
+
+    @Test(expected = DataModelExpansionException.class)
+    public void shouldFail_IfMissingIncludePageIsNotSuppressed() throws ContentProviderException {
+        //given
+        configService.getErrors().setMissingIncludePageSuppress(false);
+        when(contentService.loadPageContentBytes(1, 3)).thenThrow(new ContentProviderException("Include page is not published"));
+
+        //when
+        service.loadPageModel(_request());
+
+        //then exception
+    }
+
+    @Test
+    public void shouldLoadIncludePageOnce_AndReturnIndependentCopies() throws ContentProviderException {
+        //given
+        service.setCacheManager(new ConcurrentMapCacheManager("includePages"));
+
+        //when
+        PageModelData first = service.loadPageModel(_request());
+        first.getRegions().get(0).getRegions().get(0).addRegion(new RegionModelData("Changed", null, null, null));
+        PageModelData second = service.loadPageModel(_request());
+
+        //then
+        verify(contentService, times(1)).loadPageContentBytes(1, 2);
+        verify(contentService, times(1)).loadPageContentBytes(1, 3);
+        assertNotSame(first.getRegions().get(0).getRegions().get(0), second.getRegions().get(0).getRegions().get(0));
+        assertEquals(singletonList("Navigation"), _names(second.getRegions().get(0).getRegions()));
+        assertTrue(_names(second.getRegions().get(0).getRegions().get(0).getRegions()).isEmpty());
+    }
+
+    @Test
+    public void shouldNotShareIncludePages_BetweenDifferentRequests() throws ContentProviderException {
+        //given
+        service.setCacheManager(new ConcurrentMapCacheManager("includePages"));
+
+        //when
+        service.loadPageModel(_request());
+        service.loadPageModel(PageRequestDto.builder(1, 1).uriType("ish").build());
+        service.loadPageModel(PageRequestDto.builder(1, 1).dataModelType(DataModelType.DD4T).build());
+
+        //then
+        verify(contentService, times(3)).loadPageContentBytes(1, 2);
+    }
+
+    @Test
+    public void shouldKeepOnlyProjectedRegionsAndFields_AndNotLoadOtherIncludePages() throws ContentProviderException {
+        //when
+        PageModelData page = service.loadPageModel(_request(), PageProjection.of("header,main", "regions"));
+
+        //then
+        assertEquals("1", page.getId());
+        assertNull(page.getTitle());
+        assertEquals(asList("Header", "Main"), _names(page.getRegions()));
+        assertEquals(singletonList("Navigation"), _names(page.getRegions().get(0).getRegions()));
+        verify(contentService, never()).loadPageContentBytes(1, 3);
+    }
+
+    private static PageRequestDto _request() {
+        return PageRequestDto.builder(1, 1).includePages(PageRequestDto.PageInclusion.INCLUDE).build();
+    }
+
+    private static List<String> _names(List<RegionModelData> regions) {
+        return regions == null ? emptyList() : regions.stream().map(RegionModelData::getName).collect(Collectors.toList());
+    }
+
+    private static byte[] _bytes(String content) {
+        return content.getBytes(StandardCharsets.UTF_8);
+    }
+}
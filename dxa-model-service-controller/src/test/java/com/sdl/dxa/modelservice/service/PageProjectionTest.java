@@ -0,0 +1,55 @@
+package com.sdl.dxa.modelservice.service;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class PageProjectionTest {
+
+    @Test
+    public void shouldKeepEverything_IfNothingIsRequested() {
+        assertSame(PageProjection.ALL, PageProjection.of(null, null));
+        assertSame(PageProjection.ALL, PageProjection.of("", " , "));
+        assertTrue(PageProjection.ALL.includesRegion("Main"));
+        assertTrue(PageProjection.ALL.includesField("Meta"));
+    }
+
+    @Test
+    public void shouldKeepRequestedRegions_IgnoringCase() {
+        //when
+        PageProjection projection = PageProjection.of("main, Hero", null);
+
+        //then
+        assertFalse(projection.isAll());
+        assertTrue(projection.includesRegion("Main"));
+        assertTrue(projection.includesRegion("hero"));
+        assertFalse(projection.includesRegion("Header"));
+        assertFalse(projection.includesRegion(null));
+        assertTrue(projection.includesField("Regions"));
+    }
+
+    @Test
+    public void shouldKeepRequestedFields_AndPageId() {
+        //when
+        PageProjection projection = PageProjection.of(null, "meta,title");
+
+        //then
+        assertTrue(projection.includesField("Meta"));
+        assertTrue(projection.includesField("Title"));
+        assertTrue(projection.includesField("Id"));
+        assertTrue(projection.includesField("$type"));
+        assertFalse(projection.includesField("Regions"));
+        assertFalse(projection.includesField("UrlPath"));
+    }
+
+    @Test
+    public void shouldCompareByValue_ToBeUsedInCacheKeys() {
+        assertEquals(PageProjection.of("Main,Hero", "regions"), PageProjection.of("hero, main", "Regions"));
+        assertEquals(PageProjection.of("Main", null).hashCode(), PageProjection.of("main", null).hashCode());
+        assertNotEquals(PageProjection.of("Main", null), PageProjection.of(null, "Main"));
+    }
+}
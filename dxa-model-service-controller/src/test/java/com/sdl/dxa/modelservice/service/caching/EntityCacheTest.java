@@ -0,0 +1,59 @@
+package com.sdl.dxa.modelservice.service.caching;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class EntityCacheTest {
+
+    @Test
+    public void shouldCountHitsAndMisses() {
+        //given
+        EntityCache<String, String> cache = new EntityCache<>(10);
+
+        //when
+        assertNull(cache.get("1-2"));
+        cache.put("1-2", "entity");
+        String first = cache.get("1-2");
+        String second = cache.get("1-2");
+
+        //then
+        assertEquals("entity", first);
+        assertEquals("entity", second);
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsed_WhenCapacityReached() {
+        //given
+        EntityCache<String, String> cache = new EntityCache<>(2);
+        cache.put("1-2", "a");
+        cache.put("3-4", "b");
+
+        //when
+        cache.get("1-2");
+        cache.put("5-6", "c");
+
+        //then
+        assertEquals(2, cache.size());
+        assertTrue(cache.getStore().containsKey("1-2"));
+        assertTrue(cache.getStore().containsKey("5-6"));
+        assertNull(cache.get("3-4"));
+    }
+
+    @Test
+    public void shouldNotStore_IfDisabled() {
+        //given
+        EntityCache<String, String> cache = new EntityCache<>(0);
+
+        //when
+        cache.put("1-2", "a");
+
+        //then
+        assertEquals(0, cache.size());
+        assertNull(cache.get("1-2"));
+    }
+}
@@ -0,0 +1,45 @@
+package com.sdl.dxa.modelservice.service.caching;
+
+import org.junit.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FailuresCacheTest {
+
+    @Test
+    public void shouldRememberFailedLookups_AndCountHitsPerType() {
+        //given
+        FailuresCache cache = new FailuresCache();
+        cache.setCacheManager(new ConcurrentMapCacheManager("failures"));
+
+        //when
+        boolean before = cache.isFailed(FailuresCache.Type.PAGE, 1, "/missing.html");
+        cache.recordFailure(FailuresCache.Type.PAGE, 1, "/missing.html");
+        boolean after = cache.isFailed(FailuresCache.Type.PAGE, 1, "/missing.html");
+        boolean otherType = cache.isFailed(FailuresCache.Type.KEYWORD, 1, "/missing.html");
+
+        //then
+        assertFalse(before);
+        assertTrue(after);
+        assertFalse(otherType);
+        assertEquals(1, cache.getHits(FailuresCache.Type.PAGE));
+        assertEquals(1, cache.getMisses(FailuresCache.Type.PAGE));
+        assertEquals(0, cache.getHits(FailuresCache.Type.KEYWORD));
+        assertEquals(1, cache.getMisses(FailuresCache.Type.KEYWORD));
+    }
+
+    @Test
+    public void shouldNotRemember_IfThereIsNoCache() {
+        //given
+        FailuresCache cache = new FailuresCache();
+
+        //when
+        cache.recordFailure(FailuresCache.Type.ENTITY, 1, 2, 3);
+
+        //then
+        assertFalse(cache.isFailed(FailuresCache.Type.ENTITY, 1, 2, 3));
+    }
+}
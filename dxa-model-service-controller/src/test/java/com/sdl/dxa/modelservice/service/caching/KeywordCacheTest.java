@@ -0,0 +1,167 @@
+package com.sdl.dxa.modelservice.service.caching;
+
+import com.sdl.dxa.modelservice.service.processing.expansion.ExpansionDeadline;
+import com.tridion.taxonomies.Keyword;
+import org.junit.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class KeywordCacheTest {
+
+    private static final String KEYWORD_URI = "tcm:1-2-1024";
+
+    private static final String MISSING_URI = "tcm:1-3-1024";
+
+    private final Keyword keyword = mock(Keyword.class);
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    public void shouldLoadKeywordOnce_AndTakeItFromCacheLater() {
+        //given
+        KeywordCache cache = new TestKeywordCache(100, 60);
+
+        //when
+        Keyword first = cache.getKeyword(KEYWORD_URI);
+        Keyword second = cache.getKeyword(KEYWORD_URI);
+
+        //then
+        assertTrue(cache.isEnabled());
+        assertSame(keyword, first);
+        assertSame(keyword, second);
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void shouldRememberMissingKeywords_InFailuresCache() {
+        //given
+        KeywordCache cache = new TestKeywordCache(100, 60);
+        FailuresCache failuresCache = new FailuresCache();
+        failuresCache.setCacheManager(new ConcurrentMapCacheManager("failures"));
+        cache.setFailuresCache(failuresCache);
+
+        //when
+        Keyword first = cache.getKeyword(MISSING_URI);
+        Keyword second = cache.getKeyword(MISSING_URI);
+
+        //then
+        assertNull(first);
+        assertNull(second);
+        assertEquals(1, loads.get());
+        assertTrue(failuresCache.isFailed(FailuresCache.Type.KEYWORD, MISSING_URI));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void shouldPreloadUniqueKeywords_Concurrently() {
+        //given
+        KeywordCache cache = new TestKeywordCache(100, 60);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        //when
+        try {
+            cache.preload(Arrays.asList(KEYWORD_URI, MISSING_URI, KEYWORD_URI), executor, null);
+        } finally {
+            executor.shutdown();
+        }
+        Keyword loaded = cache.getKeyword(KEYWORD_URI);
+
+        //then
+        assertSame(keyword, loaded);
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void shouldNotPreloadKeywords_IfDeadlinePassed() {
+        //given
+        KeywordCache cache = new TestKeywordCache(100, 60);
+        ExpansionDeadline deadline = mock(ExpansionDeadline.class);
+        when(deadline.isExpired()).thenReturn(true);
+
+        //when
+        cache.preload(Arrays.asList(KEYWORD_URI, MISSING_URI), null, deadline);
+
+        //then
+        assertEquals(0, loads.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test(timeout = 5000)
+    public void shouldStopWaitingForKeywords_WhenDeadlinePasses() throws InterruptedException {
+        //given
+        CountDownLatch release = new CountDownLatch(1);
+        KeywordCache cache = new TestKeywordCache(100, 60) {
+            @Override
+            Keyword loadKeyword(String keywordUri) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.loadKeyword(keywordUri);
+            }
+        };
+        ExpansionDeadline deadline = mock(ExpansionDeadline.class);
+        when(deadline.remainingMillis()).thenReturn(50L);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        //when
+        try {
+            cache.preload(Arrays.asList(KEYWORD_URI, MISSING_URI), executor, deadline);
+            release.countDown();
+        } finally {
+            executor.shutdown();
+        }
+
+        //then
+        assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+        assertEquals(2, loads.get());
+        // keyword loaded after the deadline is still cached for the next requests
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void shouldAlwaysLoadKeywords_IfDisabled() {
+        //given
+        KeywordCache cache = new TestKeywordCache(0, 60);
+
+        //when
+        cache.preload(Arrays.asList(KEYWORD_URI, MISSING_URI), null, null);
+        cache.getKeyword(KEYWORD_URI);
+        cache.getKeyword(KEYWORD_URI);
+
+        //then
+        assertFalse(cache.isEnabled());
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.size());
+    }
+
+    private class TestKeywordCache extends KeywordCache {
+
+        TestKeywordCache(long maxSize, long ttlSeconds) {
+            super(maxSize, ttlSeconds);
+        }
+
+        @Override
+        Keyword loadKeyword(String keywordUri) {
+            loads.incrementAndGet();
+            return KEYWORD_URI.equals(keywordUri) ? keyword : null;
+        }
+    }
+}
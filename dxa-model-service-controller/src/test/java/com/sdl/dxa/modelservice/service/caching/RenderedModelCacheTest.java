@@ -0,0 +1,174 @@
+package com.sdl.dxa.modelservice.service.caching;
+
+import com.sdl.dxa.modelservice.service.processing.expansion.ExpansionDeadline;
+import org.junit.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class RenderedModelCacheTest {
+
+    @Test
+    public void shouldRenderModelOnce_AndReturnCachedBytes() throws Exception {
+        //given
+        RenderedModelCache cache = new RenderedModelCache(true, new MappingJackson2HttpMessageConverter(),
+                new ConcurrentMapCacheManager("renderedModels"));
+        AtomicInteger loads = new AtomicInteger();
+        RenderedModelCache.ModelLoader loader = () -> {
+            loads.incrementAndGet();
+            return Collections.singletonMap("Id", "42");
+        };
+
+        //when
+        RenderedModelCache.RenderedModel first = cache.getOrRender(loader, "PageModel", 42);
+        RenderedModelCache.RenderedModel second = cache.getOrRender(loader, "PageModel", 42);
+
+        //then
+        assertEquals("{\"Id\":\"42\"}", new String(first.getContent(), StandardCharsets.UTF_8));
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void shouldNotCachePartialModel() throws Exception {
+        //given
+        RenderedModelCache cache = new RenderedModelCache(true, new MappingJackson2HttpMessageConverter(),
+                new ConcurrentMapCacheManager("renderedModels"));
+        AtomicInteger loads = new AtomicInteger();
+        RenderedModelCache.ModelLoader loader = () -> {
+            loads.incrementAndGet();
+            ExpansionDeadline.current().markPartial();
+            return Collections.singletonMap("Id", "42");
+        };
+
+        //when
+        try {
+            ExpansionDeadline.start(60_000);
+            cache.getOrRender(loader, "PageModel", 42);
+            ExpansionDeadline.start(60_000);
+            cache.getOrRender(loader, "PageModel", 42);
+        } finally {
+            ExpansionDeadline.clear();
+        }
+        RenderedModelCache.RenderedModel complete = cache.getOrRender(() -> Collections.singletonMap("Id", "42"), "PageModel", 42);
+        RenderedModelCache.RenderedModel cached = cache.getOrRender(loader, "PageModel", 42);
+
+        //then
+        assertEquals(2, loads.get());
+        assertSame(complete, cached);
+    }
+
+    @Test
+    public void shouldRenderEveryTime_IfDisabled() throws Exception {
+        //given
+        RenderedModelCache cache = new RenderedModelCache(false, new MappingJackson2HttpMessageConverter(),
+                new ConcurrentMapCacheManager("renderedModels"));
+        AtomicInteger loads = new AtomicInteger();
+        RenderedModelCache.ModelLoader loader = () -> {
+            loads.incrementAndGet();
+            return Collections.singletonMap("Id", "42");
+        };
+
+        //when
+        RenderedModelCache.RenderedModel first = cache.getOrRender(loader, "PageModel", 42);
+        RenderedModelCache.RenderedModel second = cache.getOrRender(loader, "PageModel", 42);
+
+        //then
+        assertFalse(cache.isEnabled());
+        assertEquals(2, loads.get());
+        assertEquals(first.getETag(), second.getETag());
+    }
+
+    @Test
+    public void shouldGiveDifferentETags_ToDifferentModels() throws Exception {
+        //given
+        RenderedModelCache cache = new RenderedModelCache(true, new MappingJackson2HttpMessageConverter(),
+                new ConcurrentMapCacheManager("renderedModels"));
+
+        //when
+        String first = cache.getOrRender(() -> Collections.singletonMap("Id", "42"), "PageModel", 42).getETag();
+        String second = cache.getOrRender(() -> Collections.singletonMap("Id", "43"), "PageModel", 43).getETag();
+
+        //then
+        assertTrue(first.startsWith("\"") && first.endsWith("\""));
+        assertNotEquals(first, second);
+    }
+
+    @Test
+    public void shouldSendCompressedModel_OnlyIfClientAcceptsGzip() throws Exception {
+        //given
+        RenderedModelCache cache = new RenderedModelCache(true, new MappingJackson2HttpMessageConverter(),
+                new ConcurrentMapCacheManager("renderedModels"));
+        RenderedModelCache.RenderedModel rendered = cache.getOrRender(() -> Collections.singletonMap("Id", "42"), "PageModel", 42);
+
+        //when
+        ResponseEntity<byte[]> gzipped = rendered.toResponse(MediaType.APPLICATION_JSON, "deflate, gzip;q=0.8");
+        ResponseEntity<byte[]> plain = rendered.toResponse(MediaType.APPLICATION_JSON, "gzip;q=0");
+
+        //then
+        assertTrue(rendered.isGzipped());
+        assertEquals("gzip", gzipped.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertNotEquals(rendered.getETag(), gzipped.getHeaders().getETag());
+        assertEquals("{\"Id\":\"42\"}", new String(StreamUtils.copyToByteArray(
+                new GZIPInputStream(new ByteArrayInputStream(gzipped.getBody()))), StandardCharsets.UTF_8));
+
+        assertNull(plain.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(rendered.getETag(), plain.getHeaders().getETag());
+        assertEquals("{\"Id\":\"42\"}", new String(plain.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void shouldPreferExplicitGzipEntry_OverWildcard() throws Exception {
+        //given
+        RenderedModelCache cache = new RenderedModelCache(true, new MappingJackson2HttpMessageConverter(),
+                new ConcurrentMapCacheManager("renderedModels"));
+        RenderedModelCache.RenderedModel rendered = cache.getOrRender(() -> Collections.singletonMap("Id", "42"), "PageModel", 42);
+
+        //when, then
+        assertNull(_contentEncoding(rendered, "*, gzip;q=0"));
+        assertNull(_contentEncoding(rendered, "gzip;q=0.0, *"));
+        assertEquals("gzip", _contentEncoding(rendered, "*;q=0, gzip"));
+        assertEquals("gzip", _contentEncoding(rendered, "deflate;q=0.5, *;q=0.1"));
+        assertNull(_contentEncoding(rendered, "*;q=0"));
+        assertNull(_contentEncoding(rendered, "deflate, identity"));
+        assertNull(_contentEncoding(rendered, "gzip;q=invalid"));
+        assertEquals("gzip", _contentEncoding(rendered, "GZIP; Q=0.001"));
+    }
+
+    @Test
+    public void shouldNotCompressModel_IfCompressionDisabled() throws Exception {
+        //given
+        RenderedModelCache cache = new RenderedModelCache(true, new MappingJackson2HttpMessageConverter(),
+                new ConcurrentMapCacheManager("renderedModels"));
+        cache.setCompression(false);
+
+        //when
+        RenderedModelCache.RenderedModel rendered = cache.getOrRender(() -> Collections.singletonMap("Id", "42"), "PageModel", 42);
+        ResponseEntity<byte[]> response = rendered.toResponse(MediaType.APPLICATION_JSON, "gzip");
+
+        //then
+        assertFalse(rendered.isGzipped());
+        assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertSame(rendered.getContent(), response.getBody());
+    }
+
+    private static String _contentEncoding(RenderedModelCache.RenderedModel rendered, String acceptEncoding) {
+        return rendered.toResponse(MediaType.APPLICATION_JSON, acceptEncoding).getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+    }
+}
@@ -0,0 +1,71 @@
+package com.sdl.dxa.modelservice.service.processing.expansion;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ExpansionDeadlineTest {
+
+    @After
+    public void clear() {
+        ExpansionDeadline.clear();
+    }
+
+    @Test
+    public void shouldKeepDeadline_ForCurrentThreadOnly() throws InterruptedException {
+        //given
+        ExpansionDeadline deadline = ExpansionDeadline.start(60_000);
+        ExpansionDeadline[] otherThread = new ExpansionDeadline[1];
+
+        //when
+        Thread thread = new Thread(() -> otherThread[0] = ExpansionDeadline.current());
+        thread.start();
+        thread.join();
+
+        //then
+        assertSame(deadline, ExpansionDeadline.current());
+        assertNull(otherThread[0]);
+        assertFalse(deadline.isExpired());
+        assertFalse(deadline.isPartial());
+    }
+
+    @Test
+    public void shouldExpire_WhenTimeRunsOut() {
+        //given
+        ExpansionDeadline deadline = new ExpansionDeadline(0);
+
+        //when
+        deadline.markPartial();
+
+        //then
+        assertTrue(deadline.isExpired());
+        assertTrue(deadline.isPartial());
+        assertNull(ExpansionDeadline.current());
+    }
+
+    @Test
+    public void shouldPassDeadline_ToTaskOnOtherThread() throws Exception {
+        //given
+        ExpansionDeadline deadline = new ExpansionDeadline(60_000);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        //when
+        try {
+            ExpansionDeadline inTask = executor.submit(ExpansionDeadline.withDeadline(deadline, ExpansionDeadline::current)).get();
+            ExpansionDeadline afterTask = executor.submit(ExpansionDeadline::current).get();
+
+            //then
+            assertSame(deadline, inTask);
+            assertNull(afterTask);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.sdl.dxa.modelservice.service.processing.expansion;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sdl.dxa.api.datamodel.DataModelSpringConfiguration;
+import com.sdl.dxa.api.datamodel.model.EntityModelData;
+import com.sdl.dxa.api.datamodel.model.PageModelData;
+import com.sdl.dxa.common.dto.EntityRequestDto;
+import com.sdl.dxa.common.dto.PageRequestDto;
+import com.sdl.dxa.modelservice.service.ConfigService;
+import com.sdl.dxa.modelservice.service.EntityModelService;
+import com.sdl.dxa.tridion.content.StaticContentResolver;
+import com.sdl.dxa.tridion.linking.RichTextLinkResolver;
+import com.sdl.dxa.tridion.linking.api.BatchLinkResolver;
+import com.sdl.webapp.common.api.content.ContentProviderException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PageModelExpanderTest {
+
+    private static final String PAGE = "{\"Id\":\"1\",\"Meta\":{},\"Regions\":[" +
+            "{\"Name\":\"Main\",\"Entities\":[{\"Id\":\"10-20\"},{\"Id\":\"11-20\"},{\"Id\":\"10-20\"},{\"Id\":\"12-20\"}]}]}";
+
+    private final ObjectMapper objectMapper = new DataModelSpringConfiguration().dxaR2ObjectMapper();
+
+    private final EntityModelService entityModelService = mock(EntityModelService.class);
+
+    private final Map<Integer, AtomicInteger> loads = new ConcurrentHashMap<>();
+
+    private ConfigService configService;
+
+    private ExecutorService executor;
+
+    @Before
+    public void init() throws ContentProviderException {
+        configService = new ConfigService(new ConfigService.Defaults(mock(StaticContentResolver.class), objectMapper));
+        configService.getErrors().setMissingEntitySuppress(true);
+        executor = Executors.newFixedThreadPool(4);
+
+        when(entityModelService.loadEntity(any(EntityRequestDto.class))).thenAnswer(invocation -> {
+            EntityRequestDto request = (EntityRequestDto) invocation.getArguments()[0];
+            int componentId = request.getComponentId();
+            loads.computeIfAbsent(componentId, id -> new AtomicInteger()).incrementAndGet();
+            if (componentId == 12) {
+                throw new ContentProviderException("Entity " + componentId + " is not published");
+            }
+            return objectMapper.readValue("{\"Id\":\"" + componentId + "-20\",\"SchemaId\":\"" + componentId + "\"," +
+                    "\"Content\":{\"headline\":\"Title\"}}", EntityModelData.class);
+        });
+    }
+
+    @After
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void shouldLoadEveryDistinctEntityOnce_Concurrently_KeepingOrder() throws Exception {
+        //given
+        PageModelData page = objectMapper.readValue(PAGE, PageModelData.class);
+
+        //when
+        _expander(executor).expandPage(page);
+
+        //then
+        List<EntityModelData> entities = page.getRegions().get(0).getEntities();
+        assertEquals(asList("10-20", "11-20", "10-20", "12-20"), entities.stream().map(EntityModelData::getId).collect(Collectors.toList()));
+        assertEquals("10", entities.get(0).getSchemaId());
+        assertEquals("11", entities.get(1).getSchemaId());
+        assertEquals("10", entities.get(2).getSchemaId());
+        assertEquals(1, loads.get(10).get());
+        assertEquals(1, loads.get(11).get());
+        assertEquals(1, loads.get(12).get());
+    }
+
+    @Test
+    public void shouldGiveEveryPlaceholderOfEntity_ItsOwnCopy() throws Exception {
+        //given
+        PageModelData page = objectMapper.readValue(PAGE, PageModelData.class);
+
+        //when
+        _expander(executor).expandPage(page);
+        List<EntityModelData> entities = page.getRegions().get(0).getEntities();
+        entities.get(0).getContent().put("headline", "Changed");
+
+        //then
+        assertNotSame(entities.get(0).getContent(), entities.get(2).getContent());
+        assertEquals("Title", entities.get(2).getContent().get("headline"));
+        assertEquals(1, loads.get(10).get());
+    }
+
+    @Test
+    public void shouldSuppressMissingEntity_SameAsWithoutExecutor() throws Exception {
+        //given
+        PageModelData concurrentPage = objectMapper.readValue(PAGE, PageModelData.class);
+        PageModelData sequentialPage = objectMapper.readValue(PAGE, PageModelData.class);
+
+        //when
+        _expander(executor).expandPage(concurrentPage);
+        _expander(null).expandPage(sequentialPage);
+
+        //then
+        assertNull(concurrentPage.getRegions().get(0).getEntities().get(3).getSchemaId());
+        assertEquals(objectMapper.writeValueAsString(sequentialPage), objectMapper.writeValueAsString(concurrentPage));
+    }
+
+    @Test(expected = DataModelExpansionException.class)
+    public void shouldFail_IfMissingEntityIsNotSuppressed() throws Exception {
+        //given
+        configService.getErrors().setMissingEntitySuppress(false);
+        PageModelData page = objectMapper.readValue(PAGE, PageModelData.class);
+
+        //when
+        _expander(executor).expandPage(page);
+
+        //then exception
+    }
+
+    private PageModelExpander _expander(ExecutorService executor) {
+        return new PageModelExpander(PageRequestDto.builder(1, "/path").build(), entityModelService,
+                mock(RichTextLinkResolver.class), configService, mock(BatchLinkResolver.class), 1, executor);
+    }
+}
@@ -0,0 +1,60 @@
+package com.sdl.dxa.modelservice.spring;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sdl.dxa.api.datamodel.DataModelSpringConfiguration;
+import com.sdl.dxa.api.datamodel.model.PageModelData;
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SmileHttpMessageConverterTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldRoundTripModel_SameAsJson() throws Exception {
+        //given
+        ObjectMapper objectMapper = new DataModelSpringConfiguration().dxaR2ObjectMapper();
+        PageModelData page = objectMapper.readValue(
+                IOUtils.toString(new ClassPathResource("models/r2.json").getInputStream(), "UTF-8"), PageModelData.class);
+        HttpMessageConverter<Object> converter = new SmileHttpMessageConverter(objectMapper);
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+
+        //when
+        converter.write(page, SmileHttpMessageConverter.APPLICATION_SMILE, output);
+        Object result = converter.read((Class) PageModelData.class, new MockHttpInputMessage(output.getBodyAsBytes()));
+
+        //then
+        assertEquals(SmileHttpMessageConverter.APPLICATION_SMILE, output.getHeaders().getContentType());
+        assertEquals(objectMapper.writeValueAsString(page), objectMapper.writeValueAsString(result));
+    }
+
+    @Test
+    public void shouldPreferSmile_OnlyIfClientAsksForItBeforeJson() {
+        assertTrue(SmileHttpMessageConverter.isPreferred("application/x-jackson-smile"));
+        assertTrue(SmileHttpMessageConverter.isPreferred("application/json;q=0.5, application/x-jackson-smile"));
+
+        assertFalse(SmileHttpMessageConverter.isPreferred(null));
+        assertFalse(SmileHttpMessageConverter.isPreferred("*/*"));
+        assertFalse(SmileHttpMessageConverter.isPreferred(MediaType.APPLICATION_JSON_VALUE));
+        assertFalse(SmileHttpMessageConverter.isPreferred("application/json, application/x-jackson-smile;q=0.5"));
+    }
+
+    @Test
+    public void shouldNotWriteRawContentOrStrings() {
+        //given
+        SmileHttpMessageConverter converter = new SmileHttpMessageConverter(new DataModelSpringConfiguration().dxaR2ObjectMapper());
+
+        //then
+        assertFalse(converter.canWrite(byte[].class, SmileHttpMessageConverter.APPLICATION_SMILE));
+        assertFalse(converter.canWrite(String.class, SmileHttpMessageConverter.APPLICATION_SMILE));
+        assertTrue(converter.canWrite(PageModelData.class, SmileHttpMessageConverter.APPLICATION_SMILE));
+    }
+}
@@ -0,0 +1,110 @@
+package com.sdl.dxa.tridion.linking;
+
+import com.sdl.dxa.tridion.linking.api.BatchLinkResolver;
+import com.sdl.dxa.tridion.linking.api.descriptors.MultipleLinksDescriptor;
+import com.sdl.dxa.tridion.linking.api.descriptors.SingleLinkDescriptor;
+import com.sdl.dxa.tridion.linking.descriptors.ComponentLinkDescriptor;
+import com.sdl.dxa.tridion.linking.processors.EntryLinkProcessor;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static com.sdl.web.util.ContentServiceQueryConstants.LINK_TYPE_COMPONENT;
+import static org.junit.Assert.assertEquals;
+
+public class AsyncBatchLinkResolverTest {
+
+    @Test
+    public void shouldResolveBatchesInBackground_AndApplyLinksOnFlush() throws InterruptedException {
+        //given
+        List<ResolvingBatch> batches = new ArrayList<>();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        AsyncBatchLinkResolver resolver = new AsyncBatchLinkResolver(() -> {
+            ResolvingBatch batch = new ResolvingBatch();
+            batches.add(batch);
+            return batch;
+        }, executor, 2);
+
+        Map<String, String> meta = new HashMap<>();
+        meta.put("first", "tcm:1-2");
+        meta.put("second", "tcm:1-3");
+        meta.put("third", "tcm:1-4");
+
+        //when
+        resolver.dispatchLinkResolution(_descriptor(meta, "first", 2));
+        resolver.dispatchLinkResolution(_descriptor(meta, "second", 3));
+        resolver.dispatchLinkResolution(_descriptor(meta, "third", 4));
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        //then
+        assertEquals("tcm:1-2", meta.get("first"));
+        assertEquals(2, batches.get(0).resolved);
+
+        resolver.resolveAndFlush(new HashSet<>());
+
+        assertEquals(2, batches.size());
+        assertEquals("/resolved/2", meta.get("first"));
+        assertEquals("/resolved/3", meta.get("second"));
+        assertEquals("/resolved/4", meta.get("third"));
+    }
+
+    @Test
+    public void shouldResolveInCallingThread_IfNothingSentToBackground() {
+        //given
+        List<ResolvingBatch> batches = new ArrayList<>();
+        AsyncBatchLinkResolver resolver = new AsyncBatchLinkResolver(() -> {
+            ResolvingBatch batch = new ResolvingBatch();
+            batches.add(batch);
+            return batch;
+        }, Executors.newSingleThreadExecutor(), 0);
+
+        Map<String, String> meta = new HashMap<>();
+        meta.put("first", "tcm:1-2");
+
+        //when
+        resolver.dispatchLinkResolution(_descriptor(meta, "first", 2));
+        resolver.resolveAndFlush(new HashSet<>());
+
+        //then
+        assertEquals(1, batches.size());
+        assertEquals("/resolved/2", meta.get("first"));
+    }
+
+    private static SingleLinkDescriptor _descriptor(Map<String, String> meta, String key, int componentId) {
+        return new ComponentLinkDescriptor(1, 10, componentId, new EntryLinkProcessor(meta, key), LINK_TYPE_COMPONENT);
+    }
+
+    private static class ResolvingBatch implements BatchLinkResolver {
+
+        private final List<SingleLinkDescriptor> descriptors = new ArrayList<>();
+
+        private int resolved;
+
+        @Override
+        public void dispatchLinkResolution(SingleLinkDescriptor descriptor) {
+            descriptors.add(descriptor);
+        }
+
+        @Override
+        public void dispatchMultipleLinksResolution(MultipleLinksDescriptor descriptor, Set<String> notResolvedLinks) {
+        }
+
+        @Override
+        public void resolveAndFlush(Set<String> notResolvedLinks) {
+            for (SingleLinkDescriptor descriptor : descriptors) {
+                descriptor.setResolvedLink("/resolved/" + descriptor.getComponentId());
+                descriptor.update();
+                resolved++;
+            }
+        }
+    }
+}
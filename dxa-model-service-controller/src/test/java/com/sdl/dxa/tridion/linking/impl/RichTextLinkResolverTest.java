@@ -2,6 +2,7 @@ package com.sdl.dxa.tridion.linking.impl;
 
 import com.google.common.collect.Lists;
 import com.sdl.dxa.modelservice.service.ConfigService;
+import com.sdl.dxa.tridion.linking.ParsedRichTextFragment;
 import org.jetbrains.annotations.NotNull;
 import org.junit.Before;
 import org.junit.Test;
@@ -12,6 +13,7 @@ import org.mockito.Mockito;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
@@ -256,6 +258,68 @@ public class RichTextLinkResolverTest {
                 "</a></p>", result);
     }
 
+    @Test
+    public void shouldRemoveClosingTag_IfSameLinkIsNotResolvedLaterInFragment() {
+        //given
+        String fragment = "<p>Before</a><!--CompLink tcm:1-2--> <A HREF=\"tcm:1-2\">text</A><!--CompLink tcm:1-2--></p>";
+        Set<String> notResolvedBuffer = new HashSet<>();
+
+        //when
+        String result = richTextLinkResolver.processFragment(fragment, batchOfLinks, notResolvedBuffer);
+
+        //then
+        assertEquals("<p>Before text</p>", result);
+        assertEquals(Collections.singleton("tcm:1-2"), notResolvedBuffer);
+    }
+
+    @Test
+    public void shouldCollapseSpaces_AroundRemovedNamespaces() {
+        //given
+        String fragment = "<p>Text <a  xlink:href=\"tcm:1-11\"\n   title=\"t\"   >link</a><!--CompLink tcm:1-11-->   </p>";
+
+        //when
+        String removed = richTextLinkResolver.processFragment(fragment, batchOfLinks, new HashSet<>());
+        configService.getDefaults().setRichTextXmlnsRemove(false);
+        String generated = richTextLinkResolver.processFragment(fragment, batchOfLinks, new HashSet<>());
+
+        //then
+        assertEquals("<p>Text <a href=\"resolved-link\" title=\"t\">link</a> </p>", removed);
+        assertEquals("<p>Text <a xlink:href=\"tcm:1-11\" href=\"resolved-link\" title=\"t\" >link</a> </p>", generated);
+    }
+
+    @Test
+    public void shouldResolveParsedFragment_SameAsFragmentString() {
+        //given
+        String fragment = "<p>Text <a xlink:href=\"tcm:1-11\">link</a><!--CompLink tcm:1-11--> and <a href=\"tcm:1-2\">broken</a><!--CompLink tcm:1-2--></p>";
+        Set<String> notResolvedBuffer = new HashSet<>();
+
+        //when
+        ParsedRichTextFragment parsed = richTextLinkResolver.parseFragment(fragment);
+        String result = richTextLinkResolver.processFragment(parsed, batchOfLinks, notResolvedBuffer);
+
+        //then
+        assertEquals(fragment, parsed.getFragment());
+        assertEquals(Lists.newArrayList("tcm:1-11", "tcm:1-2"), parsed.getLinks());
+        assertEquals(richTextLinkResolver.retrieveAllLinksFromFragment(fragment), parsed.getLinks());
+        assertEquals(richTextLinkResolver.processFragment(fragment, batchOfLinks, new HashSet<>()), result);
+        assertEquals("<p>Text <a href=\"resolved-link\">link</a> and broken</p>", result);
+        assertEquals(Collections.singleton("tcm:1-2"), notResolvedBuffer);
+    }
+
+    @Test
+    public void shouldNotReportLinks_InParsedFragment_IfDisabled() {
+        //given
+        configService.getDefaults().setRichTextResolve(false);
+        String fragment = "<p>Text <a xlink:href=\"tcm:1-11\">link text</a><!--CompLink tcm:1-11--></p>";
+
+        //when
+        ParsedRichTextFragment parsed = richTextLinkResolver.parseFragment(fragment);
+
+        //then
+        assertTrue(parsed.getLinks().isEmpty());
+        assertEquals(fragment, richTextLinkResolver.processFragment(parsed, batchOfLinks, new HashSet<>()));
+    }
+
     @Test
     public void testGetAllFragmentsThroughRegex() {
 
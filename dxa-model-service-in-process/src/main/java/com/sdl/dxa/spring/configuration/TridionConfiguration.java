@@ -1,12 +1,22 @@
 package com.sdl.dxa.spring.configuration;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.sdl.dxa.modelservice.service.ClaimStoreAwareExecutorService;
 import com.sdl.dxa.tridion.linking.BrokerTridionLinkResolver;
 import com.sdl.dxa.tridion.linking.TridionBatchLinkResolver;
 import com.sdl.dxa.tridion.linking.api.BatchLinkResolver;
 import com.sdl.webapp.common.api.content.LinkResolver;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Scope;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * TridionConfiguration.
@@ -16,10 +26,26 @@ public class TridionConfiguration {
 
     @Bean
     @Primary
+    @Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
     public BatchLinkResolver batchLinkResolver() {
         return new TridionBatchLinkResolver();
     }
 
+    /**
+     * Executor to resolve distinct links of a page concurrently. Bounded both in threads and queue,
+     * when it's full the requesting thread resolves a link itself. Links are resolved with the claim store of the request.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService linkResolverExecutor(@Value("${dxa.web.link-resolver.threads:8}") int threads) {
+        int poolSize = Math.max(threads, 1);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(poolSize * 64),
+                new ThreadFactoryBuilder().setNameFormat("dxa-link-resolver-%d").setDaemon(true).build(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return new ClaimStoreAwareExecutorService(executor);
+    }
+
     @Bean(name = "dxaLinkResolver")
     public LinkResolver linkResolver() {
         return new BrokerTridionLinkResolver();
@@ -24,4 +24,11 @@ public class InProcTridionPageContentQuery implements TridionQueryLoader {
         query.addSorting(new SortParameter(SortParameter.ITEMS_URL, SortParameter.ASCENDING));
         return query.executeQuery();
     }
+
+    @Override
+    public String[] findItems(final Criteria criteria) throws StorageException {
+        final Query query = new Query(criteria);
+        query.addSorting(new SortParameter(SortParameter.ITEMS_URL, SortParameter.ASCENDING));
+        return query.executeQuery();
+    }
 }
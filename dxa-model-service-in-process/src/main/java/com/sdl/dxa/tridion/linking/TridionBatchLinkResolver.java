@@ -12,10 +12,19 @@ import com.tridion.linking.ComponentLink;
 import com.tridion.linking.DynamicComponentLink;
 import com.tridion.linking.Link;
 import com.tridion.linking.PageLink;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import static com.sdl.web.util.ContentServiceQueryConstants.LINK_TYPE_BINARY;
 import static com.sdl.web.util.ContentServiceQueryConstants.LINK_TYPE_COMPONENT;
@@ -24,7 +33,11 @@ import static com.sdl.web.util.ContentServiceQueryConstants.LINK_TYPE_PAGE;
 
 /**
  * TridionBatchLinkResolver.
+ * <p>Collects dispatched links and resolves them on {@link #resolveAndFlush(Set)}, every distinct link is resolved once
+ * and the result is given to all descriptors of this link. Distinct links are resolved concurrently if there is
+ * an executor. An instance holds state of a single model expansion, so is not meant to be shared.</p>
  */
+@Slf4j
 public class TridionBatchLinkResolver implements BatchLinkResolver {
 
     @Value("${dxa.web.link-resolver.remove-extension:#{true}}")
@@ -39,6 +52,22 @@ public class TridionBatchLinkResolver implements BatchLinkResolver {
     @Value("${dxa.web.link-resolver.relative-urls:#{true}}")
     private boolean useRelativeUrls;
 
+    @Value("${dxa.web.link-resolver.threads:8}")
+    private int threads;
+
+    @Autowired(required = false)
+    @Qualifier("linkResolverExecutor")
+    private ExecutorService executor;
+
+    @Autowired(required = false)
+    private LinkTypeHints linkTypeHints;
+
+    private final List<SingleLinkDescriptor> descriptors = new ArrayList<>();
+
+    private final List<MultipleLinksDescriptor> multipleLinksDescriptors = new ArrayList<>();
+
+    private final List<Set<String>> multipleLinksNotResolved = new ArrayList<>();
+
     @Override
     public void dispatchLinkResolution(final SingleLinkDescriptor descriptor) {
         if (descriptor == null) {
@@ -46,7 +75,7 @@ public class TridionBatchLinkResolver implements BatchLinkResolver {
         }
 
         descriptor.subscribe(descriptor.getLinkId());
-        resolveLink(descriptor);
+        descriptors.add(descriptor);
     }
 
     @Override
@@ -71,18 +100,72 @@ public class TridionBatchLinkResolver implements BatchLinkResolver {
             dispatchLinkResolution(ld);
         }
 
-        descriptor.update(notResolvedLinks);
+        multipleLinksDescriptors.add(descriptor);
+        multipleLinksNotResolved.add(notResolvedLinks);
     }
 
     @Override
     public void resolveAndFlush(Set<String> notResolvedLinks) {
+        // remove duplicates, every link is resolved only once even if it's used multiple times on a page
+        Map<String, List<SingleLinkDescriptor>> uniqueLinks = new LinkedHashMap<>();
+        for (SingleLinkDescriptor descriptor : descriptors) {
+            uniqueLinks.computeIfAbsent(descriptor.getLinkId(), linkId -> new ArrayList<>()).add(descriptor);
+        }
+        log.debug("Resolving {} unique links of {} dispatched", uniqueLinks.size(), descriptors.size());
+
+        List<Link> links = resolveLinks(uniqueLinks);
+
+        int i = 0;
+        for (List<SingleLinkDescriptor> subscribers : uniqueLinks.values()) {
+            Link link = links.get(i++);
+            for (SingleLinkDescriptor descriptor : subscribers) {
+                updateDescriptor(descriptor, link);
+            }
+        }
+
+        for (int j = 0; j < multipleLinksDescriptors.size(); j++) {
+            Set<String> notResolved = multipleLinksNotResolved.get(j);
+            multipleLinksDescriptors.get(j).update(notResolved != null ? notResolved : notResolvedLinks);
+        }
+
+        descriptors.clear();
+        multipleLinksDescriptors.clear();
+        multipleLinksNotResolved.clear();
     }
 
-    private void resolveLink(SingleLinkDescriptor descriptor) {
+    private List<Link> resolveLinks(Map<String, List<SingleLinkDescriptor>> uniqueLinks) {
+        List<Link> links = new ArrayList<>(uniqueLinks.size());
+        if (executor == null || threads <= 0 || uniqueLinks.size() < 2) {
+            for (List<SingleLinkDescriptor> subscribers : uniqueLinks.values()) {
+                links.add(resolveLink(subscribers.get(0)));
+            }
+            return links;
+        }
 
-        if (descriptor == null) {
-            return;
+        List<Future<Link>> futures = new ArrayList<>(uniqueLinks.size());
+        for (List<SingleLinkDescriptor> subscribers : uniqueLinks.values()) {
+            SingleLinkDescriptor descriptor = subscribers.get(0);
+            futures.add(executor.submit(() -> resolveLink(descriptor)));
         }
+        try {
+            for (Future<Link> future : futures) {
+                links.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("Interrupted while resolving links", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Couldn't resolve links", e.getCause());
+        }
+        return links;
+    }
+
+    private Link resolveLink(SingleLinkDescriptor descriptor) {
 
         final Integer pubId = descriptor.getPublicationId();
         final Integer pageId = descriptor.getPageId();
@@ -92,37 +175,51 @@ public class TridionBatchLinkResolver implements BatchLinkResolver {
             case LINK_TYPE_PAGE:
 
                 final PageLink pageLink = new PageLink(pubId);
-                updateDescriptor(descriptor, pageLink.getLink(pageId));
-                break;
+                return pageLink.getLink(pageId);
 
             case LINK_TYPE_DYNAMIC_COMPONENT:
 
                 final DynamicComponentLink dynamicComponentLink =
                         new DynamicComponentLink(pubId);
-                updateDescriptor(descriptor, dynamicComponentLink
+                return dynamicComponentLink
                         .getLink(pageId, componentId, descriptor.getTemplateId(), "",
-                                "", false));
-                break;
+                                "", false);
             case LINK_TYPE_BINARY:
-                final Link binaryLink = this.resolveBinaryLink(pubId, componentId);
-
-                if (binaryLink.isResolved()) {
-                    updateDescriptor(descriptor, binaryLink);
-                } else {
-                    final Link componentLink = resolveComponentLink(pubId, pageId, componentId);
-                    updateDescriptor(descriptor, componentLink);
-                }
-
-                break;
+                return resolveBinaryOrComponentLink(pubId, pageId, componentId);
             case LINK_TYPE_COMPONENT:
             default:
-                final Link componentLink = resolveComponentLink(pubId, pageId, componentId);
-                updateDescriptor(descriptor, componentLink);
-                break;
+                return resolveComponentLink(pubId, pageId, componentId);
+        }
+    }
+
+    private Link resolveBinaryOrComponentLink(final Integer publicationId, final Integer pageId, final Integer componentId) {
+        boolean hints = linkTypeHints != null && linkTypeHints.isEnabled();
+
+        // items known to be components are not tried as binaries, the hint may be outdated if the item was republished
+        if (hints && linkTypeHints.isComponent(publicationId, componentId)) {
+            final Link componentLink = resolveComponentLink(publicationId, pageId, componentId);
+            if (componentLink.isResolved()) {
+                return componentLink;
+            }
+            linkTypeHints.forget(publicationId, componentId);
+        }
+
+        final Link binaryLink = this.resolveBinaryLink(publicationId, componentId);
+        if (binaryLink.isResolved()) {
+            if (hints) {
+                linkTypeHints.remember(publicationId, componentId, true);
+            }
+            return binaryLink;
+        }
+
+        final Link componentLink = resolveComponentLink(publicationId, pageId, componentId);
+        if (hints && componentLink.isResolved()) {
+            linkTypeHints.remember(publicationId, componentId, false);
         }
+        return componentLink;
     }
 
-    private Link resolveBinaryLink(final Integer publicationId, final Integer componentId) {
+    Link resolveBinaryLink(final Integer publicationId, final Integer componentId) {
         final BinaryLink binaryLink = new BinaryLink(publicationId);
         return binaryLink.getLink(
                 TcmUtils.buildTcmUri(publicationId, componentId),
@@ -134,7 +231,7 @@ public class TridionBatchLinkResolver implements BatchLinkResolver {
 
     }
 
-    private Link resolveComponentLink(final Integer publicationId, final Integer pageId, final Integer componentId) {
+    Link resolveComponentLink(final Integer publicationId, final Integer pageId, final Integer componentId) {
         final ComponentLink componentLink = new ComponentLink(publicationId);
         return componentLink.getLink(
                 pageId,
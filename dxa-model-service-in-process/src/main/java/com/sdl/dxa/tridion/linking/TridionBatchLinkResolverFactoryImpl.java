@@ -4,6 +4,7 @@ package com.sdl.dxa.tridion.linking;
 import com.sdl.dxa.tridion.linking.api.BatchLinkResolver;
 import com.sdl.dxa.tridion.linking.api.BatchLinkResolverFactory;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -12,12 +13,12 @@ import org.springframework.stereotype.Component;
 public class TridionBatchLinkResolverFactoryImpl implements BatchLinkResolverFactory {
 
     @Autowired
-    BatchLinkResolver tridionBatchLinkResolver;
+    ObjectFactory<BatchLinkResolver> tridionBatchLinkResolver;
 
     @Override
     public BatchLinkResolver getBatchLinkResolver() {
-        //The in-process version of the tridionBatchLinkResolver doesn't actually resolve
-        //anything in batches and is therefor stateless and can be reused across requests and threads.
-        return tridionBatchLinkResolver;
+        //The in-process version of the tridionBatchLinkResolver collects links to resolve them in a batch
+        //and therefore is stateful, so a new instance is created for every model expansion.
+        return tridionBatchLinkResolver.getObject();
     }
 }
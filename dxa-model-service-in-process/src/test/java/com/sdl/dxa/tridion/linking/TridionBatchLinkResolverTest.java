@@ -0,0 +1,150 @@
+package com.sdl.dxa.tridion.linking;
+
+import com.sdl.dxa.api.datamodel.model.EntityModelData;
+import com.sdl.dxa.modelservice.service.ClaimStoreAwareExecutorService;
+import com.sdl.dxa.tridion.linking.api.descriptors.MultipleLinksDescriptor;
+import com.sdl.dxa.tridion.linking.api.descriptors.SingleLinkDescriptor;
+import com.sdl.dxa.tridion.linking.api.processors.LinkListProcessor;
+import com.sdl.dxa.tridion.linking.descriptors.ComponentLinkDescriptor;
+import com.sdl.dxa.tridion.linking.descriptors.RichTextLinkDescriptor;
+import com.sdl.dxa.tridion.linking.processors.EntityLinkProcessor;
+import com.tridion.linking.Link;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.sdl.web.util.ContentServiceQueryConstants.LINK_TYPE_BINARY;
+import static com.sdl.web.util.ContentServiceQueryConstants.LINK_TYPE_COMPONENT;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyMap;
+import static org.mockito.Matchers.anySetOf;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TridionBatchLinkResolverTest {
+
+    private final ExecutorService executor = new ClaimStoreAwareExecutorService(Executors.newFixedThreadPool(2));
+
+    private TridionBatchLinkResolver resolver;
+
+    @Before
+    public void init() {
+        TridionBatchLinkResolver original = new TridionBatchLinkResolver();
+        ReflectionTestUtils.setField(original, "shouldRemoveExtension", true);
+        ReflectionTestUtils.setField(original, "shouldStripIndexPath", true);
+        ReflectionTestUtils.setField(original, "threads", 2);
+        resolver = spy(original);
+
+        doReturn(_link("/articles/first.html")).when(resolver).resolveComponentLink(8, 18, 1);
+        doReturn(_link("/articles/second.html")).when(resolver).resolveComponentLink(8, 18, 2);
+        doReturn(_link(null)).when(resolver).resolveBinaryLink(anyInt(), anyInt());
+    }
+
+    @After
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void shouldResolveEveryDistinctLinkOnce_AndUpdateAllItsDescriptors() {
+        _shouldResolveEveryDistinctLinkOnce_AndUpdateAllItsDescriptors();
+    }
+
+    @Test
+    public void shouldResolveEveryDistinctLinkOnce_AndUpdateAllItsDescriptors_Concurrently() {
+        ReflectionTestUtils.setField(resolver, "executor", executor);
+
+        _shouldResolveEveryDistinctLinkOnce_AndUpdateAllItsDescriptors();
+    }
+
+    @Test
+    public void shouldResolveBinaryLinkAsComponent_IfBinaryLinkIsNotResolved() {
+        //given
+        SingleLinkDescriptor descriptor = _descriptor(1, LINK_TYPE_BINARY);
+        resolver.dispatchLinkResolution(descriptor);
+
+        //when
+        resolver.resolveAndFlush(new HashSet<>());
+
+        //then
+        assertEquals("/articles/first", descriptor.getResolvedLink());
+        verify(resolver, times(1)).resolveBinaryLink(8, 1);
+        verify(resolver, times(1)).resolveComponentLink(8, 18, 1);
+    }
+
+    @Test
+    public void shouldTakeBinaryLink_IfItIsResolved() {
+        //given
+        doReturn(_link("/media/image.jpg")).when(resolver).resolveBinaryLink(8, 1);
+        SingleLinkDescriptor descriptor = _descriptor(1, LINK_TYPE_BINARY);
+        resolver.dispatchLinkResolution(descriptor);
+
+        //when
+        resolver.resolveAndFlush(new HashSet<>());
+
+        //then
+        assertEquals("/media/image.jpg", descriptor.getResolvedLink());
+        verify(resolver, never()).resolveComponentLink(anyInt(), anyInt(), anyInt());
+    }
+
+    @Test
+    public void shouldUpdateMultipleLinksDescriptors_OnFlush() {
+        //given
+        doReturn(_link(null)).when(resolver).resolveComponentLink(8, 18, 3);
+        LinkListProcessor processor = mock(LinkListProcessor.class);
+        MultipleLinksDescriptor descriptor = new RichTextLinkDescriptor(8, 18, asList("tcm:8-1", "tcm:8-2", "tcm:8-3"), processor);
+        resolver.dispatchMultipleLinksResolution(descriptor, new HashSet<>());
+
+        //when
+        resolver.resolveAndFlush(new HashSet<>());
+
+        //then
+        assertEquals("/articles/first", descriptor.getLinks().get("tcm:8-1"));
+        assertEquals("/articles/second", descriptor.getLinks().get("tcm:8-2"));
+        assertEquals("", descriptor.getLinks().get("tcm:8-3"));
+        verify(processor, times(1)).update(anyMap(), anySetOf(String.class));
+    }
+
+    private void _shouldResolveEveryDistinctLinkOnce_AndUpdateAllItsDescriptors() {
+        //given
+        SingleLinkDescriptor first = _descriptor(1, LINK_TYPE_COMPONENT);
+        SingleLinkDescriptor second = _descriptor(2, LINK_TYPE_COMPONENT);
+        SingleLinkDescriptor firstAgain = _descriptor(1, LINK_TYPE_COMPONENT);
+        resolver.dispatchLinkResolution(first);
+        resolver.dispatchLinkResolution(second);
+        resolver.dispatchLinkResolution(firstAgain);
+
+        //when
+        resolver.resolveAndFlush(new HashSet<>());
+
+        //then
+        assertEquals("/articles/first", first.getResolvedLink());
+        assertEquals("/articles/second", second.getResolvedLink());
+        assertEquals("/articles/first", firstAgain.getResolvedLink());
+        verify(resolver, times(1)).resolveComponentLink(8, 18, 1);
+        verify(resolver, times(1)).resolveComponentLink(8, 18, 2);
+    }
+
+    private static SingleLinkDescriptor _descriptor(int componentId, String type) {
+        return new ComponentLinkDescriptor(8, 18, componentId, new EntityLinkProcessor(mock(EntityModelData.class)), type);
+    }
+
+    private static Link _link(String url) {
+        Link link = mock(Link.class);
+        when(link.isResolved()).thenReturn(url != null);
+        when(link.getURL()).thenReturn(url);
+        return link;
+    }
+}
@@ -1,15 +1,23 @@
 package com.sdl.dxa.spring.configuration;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.sdl.dxa.modelservice.service.ClaimStoreAwareExecutorService;
 import com.sdl.dxa.tridion.linking.BatchLinkResolverFactoryImpl;
 import com.sdl.dxa.tridion.linking.TridionLinkResolver;
 import com.sdl.dxa.tridion.linking.api.BatchLinkResolverFactory;
 import com.sdl.web.ambient.client.AmbientClientFilter;
 import com.sdl.webapp.common.api.content.LinkResolver;
 import com.tridion.taxonomies.TaxonomyRelationManager;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
 /**
  * TridionConfiguration.
  */
@@ -22,6 +30,21 @@ public class TridionConfiguration {
         return new BatchLinkResolverFactoryImpl();
     }
 
+    /**
+     * Executor to request chunks of large link batches concurrently. Bounded both in threads and queue,
+     * when it's full the requesting thread requests a chunk itself. Chunks are requested with the claim store of the request.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService linkResolverExecutor(@Value("${dxa.web.link-resolver.threads:8}") int threads) {
+        int poolSize = Math.max(threads, 1);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(poolSize * 64),
+                new ThreadFactoryBuilder().setNameFormat("dxa-link-resolver-%d").setDaemon(true).build(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return new ClaimStoreAwareExecutorService(executor);
+    }
+
     @Bean
     public AmbientClientFilter ambientClientFilter() {
         return new AmbientClientFilter();
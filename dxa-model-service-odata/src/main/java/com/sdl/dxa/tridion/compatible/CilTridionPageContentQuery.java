@@ -29,4 +29,12 @@ public class CilTridionPageContentQuery implements TridionQueryLoader {
         log.debug("Query {} for {}", query, pageRequest);
         return query.executeQuery();
     }
+
+    @Override
+    public String[] findItems(final Criteria criteria) throws StorageException {
+        final QueryImpl query = new QueryImpl((BrokerCriteria) criteria);
+        query.addSorting(new SortParameter(SortParameter.ITEMS_URL, SortParameter.ASCENDING));
+        log.debug("Query {}", query);
+        return query.executeQuery();
+    }
 }
@@ -9,9 +9,13 @@ import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.ExecutorService;
+
 @Slf4j
 @Component
 public class BatchLinkResolverFactoryImpl implements BatchLinkResolverFactory, InitializingBean {
@@ -26,9 +30,23 @@ public class BatchLinkResolverFactoryImpl implements BatchLinkResolverFactory, I
     @Value("${dxa.web.link-resolver.keep-trailing-slash:#{false}}")
     private boolean shouldKeepTrailingSlash;
 
+    @Autowired(required = false)
+    private ResolvedLinkCache resolvedLinkCache;
+
+    @Autowired(required = false)
+    private LinkTypeHints linkTypeHints;
+
+    @Value("${dxa.web.link-resolver.max-batch-size:500}")
+    private int maxBatchSize;
+
+    @Autowired(required = false)
+    @Qualifier("linkResolverExecutor")
+    private ExecutorService linkResolverExecutor;
+
     @Override
     public BatchLinkResolver getBatchLinkResolver() {
-        return new BatchLinkResolverImpl(shouldRemoveExtension, shouldStripIndexPath, shouldKeepTrailingSlash, new BatchLinkRetrieverImpl());
+        return new BatchLinkResolverImpl(shouldRemoveExtension, shouldStripIndexPath, shouldKeepTrailingSlash, new BatchLinkRetrieverImpl(), resolvedLinkCache, linkTypeHints)
+                .withChunks(maxBatchSize, BatchLinkRetrieverImpl::new, linkResolverExecutor);
     }
 
     @Override
@@ -1,6 +1,7 @@
 package com.sdl.dxa.tridion.linking;
 
 
+import com.google.common.collect.Lists;
 import com.sdl.dxa.common.util.PathUtils;
 import com.sdl.dxa.tridion.linking.api.BatchLinkResolver;
 import com.sdl.dxa.tridion.linking.api.descriptors.MultipleLinksDescriptor;
@@ -16,10 +17,17 @@ import com.sdl.webapp.common.util.TcmUtils;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
 
 import static com.sdl.web.util.ContentServiceQueryConstants.LINK_TYPE_BINARY;
 import static com.sdl.web.util.ContentServiceQueryConstants.LINK_TYPE_COMPONENT;
@@ -35,15 +43,57 @@ public class BatchLinkResolverImpl implements BatchLinkResolver {
     private boolean shouldStripIndexPath;
     private boolean shouldKeepTrailingSlash;
     private BatchLinkRetriever retriever;
+    private ResolvedLinkCache resolvedLinkCache;
+    private LinkTypeHints linkTypeHints;
+    private String cacheKeyPrefix;
+    private int maxBatchSize;
+    private Supplier<BatchLinkRetriever> retrieverSupplier;
+    private ExecutorService chunkExecutor;
 
     private List<SingleLinkDescriptor> descriptors = new ArrayList<>();
     private List<MultipleLinksDescriptor> multipleLinksDescriptors = new ArrayList<>();
 
     public BatchLinkResolverImpl(boolean shouldRemoveExtension, boolean shouldStripIndexPath, boolean shouldKeepTrailingSlash, BatchLinkRetriever retriever) {
+        this(shouldRemoveExtension, shouldStripIndexPath, shouldKeepTrailingSlash, retriever, null);
+    }
+
+    /**
+     * Creates a resolver which looks up links in {@link ResolvedLinkCache} first and only requests the missing ones.
+     */
+    public BatchLinkResolverImpl(boolean shouldRemoveExtension, boolean shouldStripIndexPath, boolean shouldKeepTrailingSlash,
+                                 BatchLinkRetriever retriever, ResolvedLinkCache resolvedLinkCache) {
+        this(shouldRemoveExtension, shouldStripIndexPath, shouldKeepTrailingSlash, retriever, resolvedLinkCache, null);
+    }
+
+    /**
+     * Creates a resolver which also uses {@link LinkTypeHints} to request links to items known to be components
+     * as component links right away, without trying them as binary links first.
+     */
+    public BatchLinkResolverImpl(boolean shouldRemoveExtension, boolean shouldStripIndexPath, boolean shouldKeepTrailingSlash,
+                                 BatchLinkRetriever retriever, ResolvedLinkCache resolvedLinkCache, LinkTypeHints linkTypeHints) {
         this.shouldRemoveExtension = shouldRemoveExtension;
         this.shouldStripIndexPath = shouldStripIndexPath;
         this.shouldKeepTrailingSlash = shouldKeepTrailingSlash;
         this.retriever = retriever;
+        this.resolvedLinkCache = resolvedLinkCache != null && resolvedLinkCache.isEnabled() ? resolvedLinkCache : null;
+        this.linkTypeHints = linkTypeHints != null && linkTypeHints.isEnabled() ? linkTypeHints : null;
+        this.cacheKeyPrefix = String.format("%s:%s:%s:", shouldRemoveExtension, shouldStripIndexPath, shouldKeepTrailingSlash);
+    }
+
+    /**
+     * Makes the resolver split links of a page into chunks of {@code maxBatchSize} if there are more of them,
+     * chunks are requested concurrently on the given executor, each with a new retriever.
+     *
+     * @param maxBatchSize      max number of links in a single request, {@code 0} or less to never split
+     * @param retrieverSupplier supplier of retrievers for chunks
+     * @param executor          executor to request chunks, {@code null} to never split
+     * @return this resolver
+     */
+    public BatchLinkResolverImpl withChunks(int maxBatchSize, Supplier<BatchLinkRetriever> retrieverSupplier, ExecutorService executor) {
+        this.maxBatchSize = maxBatchSize;
+        this.retrieverSupplier = retrieverSupplier;
+        this.chunkExecutor = retrieverSupplier != null ? executor : null;
+        return this;
     }
 
     public void dispatchLinkResolution(SingleLinkDescriptor descriptor) {
@@ -72,7 +122,11 @@ public class BatchLinkResolverImpl implements BatchLinkResolver {
 
     @Override
     public void resolveAndFlush(Set<String> notResolvedLinks) {
-        resolveAndFlush(this.descriptors);
+        if (resolvedLinkCache == null) {
+            resolveAndFlush(this.descriptors);
+        } else {
+            _resolveAndCache(this.descriptors);
+        }
 
         for (SingleLinkDescriptor descriptor : descriptors) {
             descriptor.update();
@@ -85,38 +139,104 @@ public class BatchLinkResolverImpl implements BatchLinkResolver {
         this.descriptors.clear();
     }
 
+    /**
+     * Takes links found in {@link ResolvedLinkCache}, requests only the rest and caches those which the retriever
+     * reported as resolved. Descriptors may hold a link also when it failed to resolve, such links are never cached.
+     */
+    private void _resolveAndCache(List<SingleLinkDescriptor> myDescriptors) {
+        // keys are taken before the request, binary links may change their type while resolving
+        Map<SingleLinkDescriptor, String> notCached = new IdentityHashMap<>();
+        for (SingleLinkDescriptor descriptor : myDescriptors) {
+            String key = cacheKeyPrefix + descriptor.getLinkId();
+            String cached = resolvedLinkCache.get(key);
+            if (cached == null) {
+                notCached.put(descriptor, key);
+            } else {
+                descriptor.setResolvedLink(cached);
+            }
+        }
+        log.debug("{} of {} links found in cache", myDescriptors.size() - notCached.size(), myDescriptors.size());
+
+        if (notCached.isEmpty()) {
+            return;
+        }
+
+        Set<SingleLinkDescriptor> resolved = Collections.newSetFromMap(new IdentityHashMap<>());
+        _resolveAndFlush(new ArrayList<>(notCached.keySet()), false, resolved);
+
+        for (Map.Entry<SingleLinkDescriptor, String> entry : notCached.entrySet()) {
+            if (resolved.contains(entry.getKey())) {
+                resolvedLinkCache.put(entry.getValue(), entry.getKey().getResolvedLink());
+            }
+        }
+    }
+
     public void resolveAndFlush(List<SingleLinkDescriptor> myDescriptors) {
-        HashMap<String, SingleLinkDescriptor> uniqueLinks = new HashMap<>();
+        _resolveAndFlush(myDescriptors, false, Collections.newSetFromMap(new IdentityHashMap<>()));
+    }
+
+    /**
+     * Resolves the links, retrying those which failed with another link type.
+     *
+     * @param resolved collects descriptors whose last request was reported as resolved by the retriever
+     */
+    private void _resolveAndFlush(List<SingleLinkDescriptor> myDescriptors, boolean retriedBinaryLinks, Set<SingleLinkDescriptor> resolved) {
+        //Binary links to items known to be components are requested as component links right away:
+        Set<SingleLinkDescriptor> hintedAsComponent = Collections.newSetFromMap(new IdentityHashMap<>());
+        if (linkTypeHints != null) {
+            for (SingleLinkDescriptor descriptor : myDescriptors) {
+                if (LINK_TYPE_BINARY.equals(descriptor.getType())
+                        && linkTypeHints.isComponent(descriptor.getPublicationId(), descriptor.getComponentId())) {
+                    descriptor.setType(LINK_TYPE_COMPONENT);
+                    hintedAsComponent.add(descriptor);
+                }
+            }
+        }
+
+        Map<String, SingleLinkDescriptor> uniqueLinks = new LinkedHashMap<>();
 
         //Remove duplicates in the link by using a HashMap.
         //This way a link only gets added to the request once, even if it is multiple times on the page.
         for (SingleLinkDescriptor singleLinkDescriptor : myDescriptors) {
-            String key = singleLinkDescriptor.getLinkId();
-            SingleLinkDescriptor descriptorForLink = uniqueLinks.get(key);
-
-            if (!uniqueLinks.containsKey(key))  {
-                BatchLinkRequest linkRequest = createBatchLinkRequest(singleLinkDescriptor);
-                String subscriptionId = retriever.addLinkRequest(linkRequest);
-                singleLinkDescriptor.subscribe(subscriptionId);
-                uniqueLinks.put(key, singleLinkDescriptor);
-                descriptorForLink = singleLinkDescriptor;
-            }
-            singleLinkDescriptor.subscribe(descriptorForLink.getSubscription());
+            uniqueLinks.putIfAbsent(singleLinkDescriptor.getLinkId(), singleLinkDescriptor);
         }
 
-        //Execute a single request for all the links:
-        this.retriever.executeRequest();
+        //Execute a single request for all the links, or a few concurrent requests if there are too many of them:
+        Map<String, Link> links = maxBatchSize > 0 && uniqueLinks.size() > maxBatchSize && chunkExecutor != null ?
+                _requestInChunks(uniqueLinks) : _request(this.retriever, uniqueLinks);
 
         //Then process the result of the request:
         List<SingleLinkDescriptor> retryBinaryLink = new ArrayList<>();
-        for (SingleLinkDescriptor descriptor : descriptors) {
+        List<SingleLinkDescriptor> retryHintedLink = new ArrayList<>();
+        for (SingleLinkDescriptor descriptor : myDescriptors) {
+            String key = descriptor.getLinkId();
+            descriptor.subscribe(uniqueLinks.get(key).getSubscription());
 
-            Link link = this.retriever.getLink(descriptor.getSubscription());
+            Link link = links.get(key);
             if (link == null) {
                 continue;
             }
 
             this.updateLink(descriptor, link);
+            if (link.isResolved()) {
+                resolved.add(descriptor);
+            } else {
+                resolved.remove(descriptor);
+            }
+
+            if (hintedAsComponent.contains(descriptor)) {
+                //The hint may be outdated if the item was republished, then it's resolved as usual:
+                if (!link.isResolved()) {
+                    linkTypeHints.forget(descriptor.getPublicationId(), descriptor.getComponentId());
+                    descriptor.setType(LINK_TYPE_BINARY);
+                    retryHintedLink.add(descriptor);
+                }
+                continue;
+            }
+
+            if (linkTypeHints != null && link.isResolved() && (retriedBinaryLinks || descriptor.getType().equals(LINK_TYPE_BINARY))) {
+                linkTypeHints.remember(descriptor.getPublicationId(), descriptor.getComponentId(), !retriedBinaryLinks);
+            }
 
             //Sometimes Binary links don't get resolved, and it has to be retried as a component link:
             if (descriptor.getType().equals(LINK_TYPE_BINARY) && !link.isResolved()) {
@@ -125,12 +245,78 @@ public class BatchLinkResolverImpl implements BatchLinkResolver {
             }
         }
 
-        this.retriever.clearRequestData();
-
         //Retry any binary links that failed:
         if (!retryBinaryLink.isEmpty()) {
-            this.resolveAndFlush(retryBinaryLink);
+            this._resolveAndFlush(retryBinaryLink, true, resolved);
+        }
+
+        if (!retryHintedLink.isEmpty()) {
+            this._resolveAndFlush(retryHintedLink, false, resolved);
+        }
+    }
+
+    /**
+     * Requests links in a single request.
+     *
+     * @param retriever   retriever to use, is cleared after the request
+     * @param uniqueLinks descriptors to request links for by their link IDs, descriptors get subscribed
+     * @return resolved links by link IDs
+     */
+    private Map<String, Link> _request(BatchLinkRetriever retriever, Map<String, SingleLinkDescriptor> uniqueLinks) {
+        for (SingleLinkDescriptor descriptor : uniqueLinks.values()) {
+            BatchLinkRequest linkRequest = createBatchLinkRequest(descriptor);
+            descriptor.subscribe(retriever.addLinkRequest(linkRequest));
+        }
+
+        retriever.executeRequest();
+
+        Map<String, Link> links = new HashMap<>();
+        for (Map.Entry<String, SingleLinkDescriptor> entry : uniqueLinks.entrySet()) {
+            links.put(entry.getKey(), retriever.getLink(entry.getValue().getSubscription()));
+        }
+        retriever.clearRequestData();
+        return links;
+    }
+
+    /**
+     * Splits the links into chunks of max batch size and requests the chunks concurrently, each with its own retriever.
+     */
+    private Map<String, Link> _requestInChunks(Map<String, SingleLinkDescriptor> uniqueLinks) {
+        List<List<Map.Entry<String, SingleLinkDescriptor>>> chunks = Lists.partition(new ArrayList<>(uniqueLinks.entrySet()), maxBatchSize);
+        log.debug("Requesting {} links in {} chunks of max {} links", uniqueLinks.size(), chunks.size(), maxBatchSize);
+
+        List<Future<Map<String, Link>>> futures = new ArrayList<>(chunks.size());
+        for (int i = 0; i < chunks.size(); i++) {
+            int chunkNumber = i + 1;
+            Map<String, SingleLinkDescriptor> chunk = new LinkedHashMap<>();
+            for (Map.Entry<String, SingleLinkDescriptor> entry : chunks.get(i)) {
+                chunk.put(entry.getKey(), entry.getValue());
+            }
+            futures.add(chunkExecutor.submit(() -> {
+                long start = System.currentTimeMillis();
+                Map<String, Link> links = _request(retrieverSupplier.get(), chunk);
+                log.debug("Chunk {} of {} links requested in {} ms", chunkNumber, chunk.size(), System.currentTimeMillis() - start);
+                return links;
+            }));
+        }
+
+        Map<String, Link> links = new HashMap<>();
+        try {
+            for (Future<Map<String, Link>> future : futures) {
+                links.putAll(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("Interrupted while requesting links", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Couldn't request links", e.getCause());
         }
+        return links;
     }
 
     private void updateLink(SingleLinkDescriptor descriptor, Link link) {
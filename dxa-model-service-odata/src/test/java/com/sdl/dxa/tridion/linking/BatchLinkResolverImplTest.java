@@ -31,17 +31,23 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
 
 import static com.sdl.web.util.ContentServiceQueryConstants.LINK_TYPE_BINARY;
 import static com.sdl.web.util.ContentServiceQueryConstants.LINK_TYPE_COMPONENT;
 import static com.sdl.web.util.ContentServiceQueryConstants.LINK_TYPE_PAGE;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.mock;
@@ -229,4 +235,141 @@ public class BatchLinkResolverImplTest {
         assertEquals(expectedUrl, descriptor.getResolvedLink());
     }
 
+    @Test
+    public void shouldTakeResolvedLinksFromCache_AndRequestOnlyMisses() {
+        String subscriptionID = UUID.randomUUID().toString();
+        String url = "/articles/simple-page.html";
+
+        BatchLinkRetriever retriever = mock(BatchLinkRetrieverImpl.class);
+        Link resolvedLink = mock(LinkImpl.class);
+        when(resolvedLink.isResolved()).thenReturn(true);
+        when(resolvedLink.getURL()).thenReturn(url);
+        when(retriever.addLinkRequest(any(BatchLinkRequestImpl.class))).thenReturn(subscriptionID);
+        when(retriever.getLink(subscriptionID)).thenReturn(resolvedLink);
+
+        ResolvedLinkCache cache = new ResolvedLinkCache(100, 60);
+        PageModelData page = mock(PageModelData.class);
+
+        SingleLinkDescriptor first = new ComponentLinkDescriptor(8, 18, COMPONENTLINKID, new PageLinkProcessor(page), LINK_TYPE_PAGE);
+        BatchLinkResolverImpl firstResolver = new BatchLinkResolverImpl(true, true, false, retriever, cache);
+        firstResolver.dispatchLinkResolution(first);
+        firstResolver.resolveAndFlush(new HashSet<>());
+
+        SingleLinkDescriptor second = new ComponentLinkDescriptor(8, 18, COMPONENTLINKID, new PageLinkProcessor(page), LINK_TYPE_PAGE);
+        BatchLinkResolverImpl secondResolver = new BatchLinkResolverImpl(true, true, false, retriever, cache);
+        secondResolver.dispatchLinkResolution(second);
+        secondResolver.resolveAndFlush(new HashSet<>());
+
+        assertEquals("/articles/simple-page", first.getResolvedLink());
+        assertEquals("/articles/simple-page", second.getResolvedLink());
+        Mockito.verify(retriever, Mockito.times(1)).addLinkRequest(any(BatchLinkRequestImpl.class));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void shouldNotCacheLinks_WhichWereNotResolved() {
+        //given
+        BatchLinkRetriever retriever = mock(BatchLinkRetrieverImpl.class);
+        Link notResolved = mock(LinkImpl.class);
+        when(notResolved.isResolved()).thenReturn(false);
+        when(notResolved.getURL()).thenReturn("");
+        when(retriever.addLinkRequest(any(BatchLinkRequestImpl.class))).thenReturn("subscription");
+        when(retriever.getLink("subscription")).thenReturn(notResolved);
+
+        ResolvedLinkCache cache = new ResolvedLinkCache(100, 60);
+        PageModelData page = mock(PageModelData.class);
+
+        //when
+        for (int i = 0; i < 2; i++) {
+            BatchLinkResolverImpl resolver = new BatchLinkResolverImpl(true, true, false, retriever, cache);
+            resolver.dispatchLinkResolution(new ComponentLinkDescriptor(8, 18, COMPONENTLINKID, new PageLinkProcessor(page), LINK_TYPE_PAGE));
+            resolver.resolveAndFlush(new HashSet<>());
+        }
+
+        //then
+        Mockito.verify(retriever, Mockito.times(2)).addLinkRequest(any(BatchLinkRequestImpl.class));
+        assertEquals(0, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    public void shouldRequestBinaryLinkAsComponent_IfItemIsKnownToBeComponent() {
+        //given
+        BatchLinkRetriever retriever = mock(BatchLinkRetrieverImpl.class);
+        Link notResolved = mock(LinkImpl.class);
+        when(notResolved.isResolved()).thenReturn(false);
+        Link resolved = mock(LinkImpl.class);
+        when(resolved.isResolved()).thenReturn(true);
+        when(resolved.getURL()).thenReturn("/articles/component.html");
+        when(retriever.addLinkRequest(any(BatchLinkRequestImpl.class))).thenReturn("binary", "component", "hinted");
+        when(retriever.getLink("binary")).thenReturn(notResolved);
+        when(retriever.getLink("component")).thenReturn(resolved);
+        when(retriever.getLink("hinted")).thenReturn(resolved);
+
+        LinkTypeHints hints = new LinkTypeHints(100, 60);
+        EntityModelData entity = mock(EntityModelData.class);
+
+        //when
+        SingleLinkDescriptor first = new ComponentLinkDescriptor(8, 18, COMPONENTLINKID, new EntityLinkProcessor(entity), LINK_TYPE_BINARY);
+        BatchLinkResolverImpl firstResolver = new BatchLinkResolverImpl(true, true, false, retriever, null, hints);
+        firstResolver.dispatchLinkResolution(first);
+        firstResolver.resolveAndFlush(new HashSet<>());
+
+        SingleLinkDescriptor second = new ComponentLinkDescriptor(8, 18, COMPONENTLINKID, new EntityLinkProcessor(entity), LINK_TYPE_BINARY);
+        BatchLinkResolverImpl secondResolver = new BatchLinkResolverImpl(true, true, false, retriever, null, hints);
+        secondResolver.dispatchLinkResolution(second);
+        secondResolver.resolveAndFlush(new HashSet<>());
+
+        //then
+        assertEquals("/articles/component", first.getResolvedLink());
+        assertEquals("/articles/component", second.getResolvedLink());
+        assertEquals(LINK_TYPE_COMPONENT, second.getType());
+        assertTrue(hints.isComponent(8, COMPONENTLINKID));
+        Mockito.verify(retriever, Mockito.times(3)).addLinkRequest(any(BatchLinkRequestImpl.class));
+        Mockito.verify(retriever, Mockito.times(3)).executeRequest();
+    }
+
+    @Test
+    public void shouldSplitLargeBatchIntoChunks_AndRequestThemConcurrently() {
+        //given
+        BatchLinkRetriever retriever = mock(BatchLinkRetrieverImpl.class);
+        List<BatchLinkRetriever> chunkRetrievers = new CopyOnWriteArrayList<>();
+        Supplier<BatchLinkRetriever> supplier = () -> {
+            BatchLinkRetriever chunkRetriever = mock(BatchLinkRetrieverImpl.class);
+            Link resolvedLink = mock(LinkImpl.class);
+            when(resolvedLink.isResolved()).thenReturn(true);
+            when(resolvedLink.getURL()).thenReturn("/articles/page.html");
+            when(chunkRetriever.addLinkRequest(any(BatchLinkRequestImpl.class))).thenReturn("subscription");
+            when(chunkRetriever.getLink("subscription")).thenReturn(resolvedLink);
+            chunkRetrievers.add(chunkRetriever);
+            return chunkRetriever;
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        BatchLinkResolverImpl resolver = new BatchLinkResolverImpl(true, true, false, retriever)
+                .withChunks(2, supplier, executor);
+
+        PageModelData page = mock(PageModelData.class);
+        List<SingleLinkDescriptor> descriptors = new ArrayList<>();
+        for (int componentId = 1; componentId <= 5; componentId++) {
+            SingleLinkDescriptor descriptor = new ComponentLinkDescriptor(8, 18, componentId, new PageLinkProcessor(page), LINK_TYPE_PAGE);
+            descriptors.add(descriptor);
+            resolver.dispatchLinkResolution(descriptor);
+        }
+
+        //when
+        resolver.resolveAndFlush(new HashSet<>());
+        executor.shutdown();
+
+        //then
+        for (SingleLinkDescriptor descriptor : descriptors) {
+            assertEquals("/articles/page", descriptor.getResolvedLink());
+        }
+        assertEquals(3, chunkRetrievers.size());
+        for (BatchLinkRetriever chunkRetriever : chunkRetrievers) {
+            Mockito.verify(chunkRetriever, Mockito.times(1)).executeRequest();
+        }
+        Mockito.verify(retriever, Mockito.never()).executeRequest();
+    }
+
 }